@@ -3,23 +3,78 @@ import javax.swing.table.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.io.*;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 class RestaurantApp {
 
-    static abstract class User implements Serializable {
+    static abstract class User implements Serializable, Cloneable {
         private static final long serialVersionUID = 1L;
         protected int userID;
         protected String username;
         protected String password;
+        protected String passwordHash; // "salt:sha256" kept instead of the password on replicas
         protected String name;
         public User(int userID, String username, String password, String name) {
             this.userID = userID; this.username = username; this.password = password; this.name = name;
         }
         public String getUsername(){ return username; }
         public String getPassword(){ return password; }
+        public boolean checkPassword(String pass) {
+            if (password != null) return password.equals(pass);
+            if (passwordHash == null) return false;
+            String salt = passwordHash.substring(0, passwordHash.indexOf(':'));
+            return MessageDigest.isEqual(passwordHash.getBytes(StandardCharsets.UTF_8), hash(salt, pass).getBytes(StandardCharsets.UTF_8));
+        }
+        // copy sent to replicas: the password is replaced by a salted hash that can only check logins
+        User withoutPassword() {
+            if (password == null) return this;
+            try {
+                User u = (User) clone();
+                byte[] salt = new byte[16];
+                new SecureRandom().nextBytes(salt);
+                u.passwordHash = hash(hex(salt), password);
+                u.password = null;
+                return u;
+            } catch (CloneNotSupportedException e) { throw new AssertionError(e); }
+        }
+        static String hash(String salt, String pass) {
+            try {
+                MessageDigest md = MessageDigest.getInstance("SHA-256");
+                return salt + ":" + hex(md.digest((salt + pass).getBytes(StandardCharsets.UTF_8)));
+            } catch (GeneralSecurityException e) { throw new IllegalStateException(e); }
+        }
+        static String hex(byte[] b) {
+            StringBuilder sb = new StringBuilder();
+            for (byte x : b) sb.append(String.format("%02x", x));
+            return sb.toString();
+        }
         public String getName(){ return name; }
         public abstract String getRole();
         public String toString(){ return String.format("%s (%s) - %s", name, username, getRole()); }
@@ -64,8 +119,28 @@ class RestaurantApp {
         String placedByUsername;
         List<OrderItem> items = new ArrayList<>();
         boolean billed = false;
+        // the billed amount is kept so reports still match the bill after the pricing rules change
+        boolean totalLocked;
+        double lockedTotal;
+        transient volatile PriceBreakdown price; // cached by PricingEngine.quote
         public Order(int orderID, String placedByUsername) { this.orderID = orderID; this.placedByUsername = placedByUsername; this.orderDate = new Date(); }
-        public double total() { double t=0; for (OrderItem oi: items) t += oi.qty * oi.priceSnapshot; return t; }
+        public double total() { return totalLocked ? lockedTotal : store.pricing.quote(this).total; }
+        // orders billed before pricing rules existed were billed at the plain sum of their lines
+        void lockLegacyTotal() {
+            if (!billed || totalLocked) return;
+            double t = 0;
+            for (OrderItem oi : items) t += oi.qty * oi.priceSnapshot;
+            lockedTotal = t;
+            totalLocked = true;
+        }
+        // working copy for editing; the stored order is replaced only when the edit is saved
+        public Order copy() {
+            Order c = new Order(orderID, placedByUsername);
+            c.orderDate = orderDate; c.billed = billed;
+            c.totalLocked = totalLocked; c.lockedTotal = lockedTotal;
+            for (OrderItem oi : items) c.items.add(new OrderItem(oi.itemID, oi.qty, oi.priceSnapshot));
+            return c;
+        }
     }
 
     static class Bill implements Serializable {
@@ -80,562 +155,1652 @@ class RestaurantApp {
         }
     }
 
-    static class DataStore {
-        private static final String USERS_FILE = "users.ser";
-        private static final String ITEMS_FILE = "items.ser";
-        private static final String ORDERS_FILE = "orders.ser";
-        private static final String BILLS_FILE = "bills.ser";
+    // per-day totals kept after the day's orders move to their partition file
+    static class DayRollup implements Serializable {
+        private static final long serialVersionUID = 1L;
+        int day; // yyyyMMdd
+        int orderCount;
+        int billedCount;
+        double revenue;
+        int maxOrderId;
+        Map<Integer, Integer> itemQty = new HashMap<>(); // itemID -> quantity sold
+        boolean detailRetained = true; // false once the partition file is removed by retention
+        int[] orderIds; // sorted IDs of the orders counted; null in rollups written before IDs were kept
+        DayRollup(int day) { this.day = day; }
+
+        // whether the order is already in these totals; without an ID list, IDs up to maxOrderId are
+        boolean counts(int orderID) {
+            return orderIds != null ? Arrays.binarySearch(orderIds, orderID) >= 0 : orderID <= maxOrderId;
+        }
 
-        Map<String, User> users = new HashMap<>(); // key = username
-        Map<Integer, Item> items = new HashMap<>(); // key = itemID
-        Map<Integer, Order> orders = new HashMap<>(); // key = orderID
-        Map<Integer, Bill> bills = new HashMap<>(); // key = billID
+        void add(Order o) {
+            orderCount++;
+            if (o.billed) billedCount++;
+            revenue += o.total();
+            maxOrderId = Math.max(maxOrderId, o.orderID);
+            for (OrderItem oi : o.items) itemQty.merge(oi.itemID, oi.qty, Integer::sum);
+        }
 
-        int nextUserId = 1;
-        int nextItemId = 1;
-        int nextOrderId = 1;
-        int nextBillId = 1;
+        void add(DayRollup r) {
+            orderCount += r.orderCount; billedCount += r.billedCount; revenue += r.revenue;
+            maxOrderId = Math.max(maxOrderId, r.maxOrderId);
+            for (Map.Entry<Integer, Integer> e : r.itemQty.entrySet()) itemQty.merge(e.getKey(), e.getValue(), Integer::sum);
+        }
+    }
 
-        public void load() {
-            Object o;
-            o = readObj(USERS_FILE); if (o instanceof Map) users = (Map<String, User>) o;
-            o = readObj(ITEMS_FILE); if (o instanceof Map) items = (Map<Integer, Item>) o;
-            o = readObj(ORDERS_FILE); if (o instanceof Map) orders = (Map<Integer, Order>) o;
-            o = readObj(BILLS_FILE); if (o instanceof Map) bills = (Map<Integer, Bill>) o;
+    // Order history partitioned by business day. The DataStore keeps only open days in memory;
+    // a closed day is written once to history/orders_<day>.ser and summarised in history/rollups.ser.
+    static class OrderHistory {
+        private static final String ROLLUPS_FILE = "rollups.ser";
 
-            for (User u : users.values()) nextUserId = Math.max(nextUserId, u.userID+1);
-            for (int id: items.keySet()) nextItemId = Math.max(nextItemId, id+1);
-            for (int id: orders.keySet()) nextOrderId = Math.max(nextOrderId, id+1);
-            for (int id: bills.keySet()) nextBillId = Math.max(nextBillId, id+1);
+        final File dir;
+        final int dayStartHour; // orders before this hour belong to the previous business day
+        final int retentionDays; // partition files older than this are deleted; 0 keeps them forever
+        ConcurrentSkipListMap<Integer, DayRollup> rollups = new ConcurrentSkipListMap<>();
 
-            // ensure admin exists
-            if (!users.containsKey("admin")) {
-                Admin a = new Admin(nextUserId++, "admin", "admin123", "Administrator");
-                users.put(a.username, a);
-                saveUsers();
-            }
+        OrderHistory(File storeDir) {
+            this(new File(storeDir, "history"), Integer.getInteger("bitewave.history.dayStartHour", 4),
+                    Integer.getInteger("bitewave.history.retentionDays", 365));
         }
 
-        private Object readObj(String fname) {
-            try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(fname))) {
-                return in.readObject();
-            } catch (Exception e) { return null; }
+        OrderHistory(File dir, int dayStartHour, int retentionDays) {
+            this.dir = dir; this.dayStartHour = dayStartHour; this.retentionDays = retentionDays;
         }
 
-        private void writeObj(String fname, Object obj) {
-            try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(fname))) {
-                out.writeObject(obj);
-            } catch (Exception e) { e.printStackTrace(); }
+        // no file means no history yet; a file that cannot be read is an error, not an empty history
+        void load() {
+            File f = new File(dir, ROLLUPS_FILE);
+            if (!f.exists()) { rollups = new ConcurrentSkipListMap<>(); return; }
+            try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(f))) {
+                rollups = new ConcurrentSkipListMap<>((Map<Integer, DayRollup>) in.readObject());
+            } catch (IOException | ClassNotFoundException | ClassCastException e) {
+                throw new UncheckedIOException("Cannot read " + f, e instanceof IOException ? (IOException) e : new IOException(e));
+            }
         }
 
-        public void saveUsers() { writeObj(USERS_FILE, users); }
-        public void saveItems() { writeObj(ITEMS_FILE, items); }
-        public void saveOrders() { writeObj(ORDERS_FILE, orders); }
-        public void saveBills() { writeObj(BILLS_FILE, bills); }
-    }
+        int dayOf(Date d) {
+            LocalDate ld = LocalDateTime.ofInstant(d.toInstant(), ZoneId.systemDefault()).minusHours(dayStartHour).toLocalDate();
+            return ld.getYear() * 10000 + ld.getMonthValue() * 100 + ld.getDayOfMonth();
+        }
 
-    static DataStore store = new DataStore();
+        int today() { return dayOf(new Date()); }
 
-    public static void main(String[] args) {
-        SwingUtilities.invokeLater(() -> {
-            store.load();
-            try { UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName()); } catch (Exception ignored) {}
-            new LoginFrame();
-        });
-    }
+        static LocalDate toDate(int day) { return LocalDate.of(day / 10000, day / 100 % 100, day % 100); }
 
-    // ---------- GUI: LoginFrame ----------
-    static class LoginFrame extends JFrame {
-        JTextField tfUser;
-        JPasswordField pf;
-        public LoginFrame() {
-            super("BiteWave - Login");
-            setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-            setSize(420,260);
-            setLocationRelativeTo(null);
+        int maxOrderId() {
+            int m = 0;
+            for (DayRollup r : rollups.values()) m = Math.max(m, r.maxOrderId);
+            return m;
+        }
 
-            JPanel p = new JPanel(new BorderLayout(12,12));
-            p.setBorder(BorderFactory.createEmptyBorder(12,12,12,12));
-            p.setBackground(Color.WHITE);
+        long orderCount() {
+            long n = 0;
+            for (DayRollup r : rollups.values()) n += r.orderCount;
+            return n;
+        }
 
-            JLabel title = new JLabel("BiteWave", JLabel.CENTER);
-            title.setFont(new Font("Segoe UI", Font.BOLD, 28));
-            title.setForeground(new Color(45, 85, 155));
-            p.add(title, BorderLayout.NORTH);
+        // writes orders of days before today to their partitions and returns them for removal from the
+        // hot map; a day with unbilled orders stays open so they can still be billed
+        List<Order> compact(Map<Integer, Order> hot) {
+            int today = today();
+            TreeMap<Integer, List<Order>> byDay = new TreeMap<>();
+            Set<Integer> open = new HashSet<>();
+            for (Order o : hot.values()) {
+                int day = dayOf(o.orderDate);
+                if (day >= today) continue;
+                if (!o.billed) open.add(day);
+                byDay.computeIfAbsent(day, k -> new ArrayList<>()).add(o);
+            }
+            byDay.keySet().removeAll(open);
+            List<Order> moved = new ArrayList<>();
+            if (byDay.isEmpty()) { applyRetention(today); return moved; }
+            dir.mkdirs();
+            for (Map.Entry<Integer, List<Order>> e : byDay.entrySet()) {
+                int day = e.getKey();
+                DayRollup previous = rollups.get(day);
+                // late arrivals for an already closed day (an import, or a compaction repeated after a crash
+                // before the hot map was saved) are merged into its partition; an order already there is replaced
+                TreeMap<Integer, Order> merged = new TreeMap<>();
+                if (previous != null && previous.detailRetained) for (Order o : readPartition(day)) merged.put(o.orderID, o);
+                for (Order o : e.getValue()) merged.put(o.orderID, o);
+                DayRollup r = new DayRollup(day);
+                // without detail the old totals can only be added to, not merged, so orders they already
+                // count (the same import run twice, or a repeat after retention purged the day) are left out
+                boolean purged = previous != null && !previous.detailRetained;
+                if (purged) {
+                    r.add(previous);
+                    r.detailRetained = false;
+                    merged.keySet().removeIf(previous::counts);
+                }
+                for (Order o : merged.values()) r.add(o);
+                if (!purged || previous.orderIds != null) {
+                    TreeSet<Integer> ids = new TreeSet<>(merged.keySet());
+                    if (purged) for (int id : previous.orderIds) ids.add(id);
+                    r.orderIds = ids.stream().mapToInt(Integer::intValue).toArray();
+                }
+                if (r.detailRetained) writeAtomically(partitionFile(day), new ArrayList<>(merged.values()));
+                rollups.put(day, r);
+            }
+            writeAtomically(new File(dir, ROLLUPS_FILE), rollups);
+            for (List<Order> dayOrders : byDay.values()) moved.addAll(dayOrders);
+            applyRetention(today);
+            return moved;
+        }
 
-            JPanel form = new JPanel(new GridLayout(3,2,8,8));
-            form.setBackground(Color.WHITE);
-            form.add(new JLabel("Username:"));
-            tfUser = new JTextField();
-            form.add(tfUser);
-            form.add(new JLabel("Password:"));
-            pf = new JPasswordField();
-            form.add(pf);
-            form.add(new JLabel(""));
-            JButton btnLogin = new JButton("Login");
-            form.add(btnLogin);
-            p.add(form, BorderLayout.CENTER);
+        // replica side: the primary's rollups replace the local ones. Their partition files stay on the
+        // primary, so days without a local file are kept as totals only, like days past retention.
+        void restoreRollups(Map<Integer, DayRollup> incoming) {
+            ConcurrentSkipListMap<Integer, DayRollup> m = new ConcurrentSkipListMap<>(incoming);
+            for (DayRollup r : m.values()) if (r.detailRetained && !partitionFile(r.day).exists()) r.detailRetained = false;
+            dir.mkdirs();
+            writeAtomically(new File(dir, ROLLUPS_FILE), m);
+            rollups = m;
+        }
 
-            JTextArea info = new JTextArea("Default admin: admin / admin123\nCreate employees from Admin dashboard.");
-            info.setEditable(false); info.setBackground(Color.WHITE); info.setFocusable(false);
-            p.add(info, BorderLayout.SOUTH);
+        // drops raw order detail for days older than the retention window; rollups are kept
+        void applyRetention(int today) {
+            if (retentionDays <= 0) return;
+            LocalDate cutoff = toDate(today).minusDays(retentionDays);
+            boolean changed = false;
+            for (DayRollup r : rollups.values()) {
+                if (!r.detailRetained || !toDate(r.day).isBefore(cutoff)) continue;
+                partitionFile(r.day).delete();
+                r.detailRetained = false;
+                changed = true;
+            }
+            if (changed) writeAtomically(new File(dir, ROLLUPS_FILE), rollups);
+        }
 
-            setContentPane(p);
-            setVisible(true);
+        // orders of a closed day, or an empty list if unknown or past retention; a partition that
+        // cannot be read throws, so an export never silently leaves out a day
+        List<Order> orders(int day) {
+            DayRollup r = rollups.get(day);
+            if (r == null || !r.detailRetained) return new ArrayList<>();
+            return readPartition(day);
+        }
 
-            btnLogin.addActionListener(e -> login());
-            getRootPane().setDefaultButton(btnLogin);
+        // fails rather than returning a partial day, so a merge never overwrites a partition it could not read
+        private List<Order> readPartition(int day) {
+            try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(partitionFile(day))))) {
+                List<Order> list = (List<Order>) in.readObject();
+                for (Order o : list) o.lockLegacyTotal();
+                return list;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read " + partitionFile(day), e);
+            } catch (ClassNotFoundException e) {
+                throw new UncheckedIOException("Cannot read " + partitionFile(day), new IOException(e));
+            }
         }
 
-        private void login() {
-            String user = tfUser.getText().trim();
-            String pass = new String(pf.getPassword()).trim();
-            if (user.isEmpty() || pass.isEmpty()) { JOptionPane.showMessageDialog(this, "Enter credentials."); return; }
-            User u = store.users.get(user);
-            if (u == null || !u.getPassword().equals(pass)) { JOptionPane.showMessageDialog(this, "Invalid username or password."); return; }
-            dispose();
-            if (u instanceof Admin) {
-                new AdminDashboard((Admin)u);
-            } else if (u instanceof Employee) {
-                new EmployeeDashboard((Employee)u);
-            } else {
-                JOptionPane.showMessageDialog(null, "Unknown user role.");
+        // combined rollup over closed days in [fromDay, toDay]
+        DayRollup summary(int fromDay, int toDay) {
+            DayRollup total = new DayRollup(fromDay);
+            for (DayRollup r : rollups.subMap(fromDay, true, toDay, true).values()) total.add(r);
+            return total;
+        }
+
+        File partitionFile(int day) { return new File(dir, "orders_" + day + ".ser"); }
+
+        // the old file stays in place until the new one is complete; failures are thrown, so a compaction
+        // stops before the hot map forgets orders that did not reach their partition
+        private void writeAtomically(File f, Object obj) {
+            File tmp = new File(f.getPath() + ".tmp");
+            try {
+                try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+                    out.writeObject(obj);
+                }
+                java.nio.file.Files.move(tmp.toPath(), f.toPath(), java.nio.file.StandardCopyOption.REPLACE_EXISTING, java.nio.file.StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write " + f, e);
             }
         }
     }
 
-    // ---------- AdminDashboard: modern cards + CardLayout subpages ----------
-    static class AdminDashboard extends JFrame {
-        Admin admin;
-        private JPanel centerCardsArea; // CardLayout area
-        private CardLayout centerCardLayout;
-        private final String HOME_CARD = "HOME_CARD";
-        private final String EMP_PANEL = "EMP_PANEL";
-        private final String ITEM_PANEL = "ITEM_PANEL";
-        private final String ORDER_PANEL = "ORDER_PANEL";
-        private final String BILLS_PANEL = "BILLS_PANEL";
+    static class DataStore {
+        static final String USERS = "users";
+        static final String ITEMS = "items";
+        static final String ORDERS = "orders";
+        static final String BILLS = "bills";
+
+        final File dir; // directory holding the data files
+        final OrderHistory history; // closed business days
+        private StorageBackend backend; // where the collections are saved; opened by load() if not given
+        volatile PricingEngine pricing = PricingEngine.NONE; // rules from pricing.rules, read by load()
+
+        // current state; values are replaced on change, never modified in place
+        Map<String, User> users = new ConcurrentHashMap<>(); // key = username
+        Map<Integer, Item> items = new ConcurrentHashMap<>(); // key = itemID
+        Map<Integer, Order> orders = new ConcurrentHashMap<>(); // key = orderID, open business days only
+        Map<Integer, Bill> bills = new ConcurrentHashMap<>(); // key = billID
 
-        public AdminDashboard(Admin admin) {
-            super("Admin Dashboard - " + admin.getName());
-            this.admin = admin;
-            setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-            setSize(1100,720);
-            setLocationRelativeTo(null);
+        int nextUserId = 1;
+        int nextItemId = 1;
+        int nextOrderId = 1;
+        int nextBillId = 1;
 
-            // Root layout: top bar + center area + footer
-            JPanel root = new JPanel(new BorderLayout(12,12));
-            root.setBorder(BorderFactory.createEmptyBorder(12,12,12,12));
-            root.setBackground(Color.WHITE);
+        long seq = 0; // sequence number of the last committed change
+        boolean readOnly = false; // replicas only accept changes from their primary
+        private int compactedDay; // business day of the last history compaction
+        private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+        // MVCC: besides the current maps every collection keeps, per key, a chain of recent versions.
+        // A ReadView sees the store as of one commit without locking or copying; writers push new
+        // versions under the store lock and drop old ones once no open view can reach them.
+        private volatile long version; // bumped once per applied commit
+        private final Map<String, ConcurrentHashMap<Object, Version>> versions = new HashMap<>();
+        private final Set<ReadView> openViews = ConcurrentHashMap.newKeySet();
+        private final ArrayDeque<Version> trimQueue = new ArrayDeque<>(); // guarded by this, in version order
+
+        // sorted indexes, kept in step with the maps; iterate or page them instead of copying and sorting
+        final Index<Order> ordersById = Index.byId(ORDERS);
+        final Index<Order> ordersByDate = new Index<>(ORDERS, o -> o.orderDate.getTime());
+        final Index<Item> itemsById = Index.byId(ITEMS);
+        final Index<Item> itemsByName = new Index<>(ITEMS, it -> it.itemName.toLowerCase());
+        final Index<User> usersByName = new Index<>(USERS, u -> u.username);
+        final Index<Bill> billsById = Index.byId(BILLS);
+        private final List<Index<?>> indexes = Arrays.asList(ordersById, ordersByDate, itemsById, itemsByName, usersByName, billsById);
+
+        // "the next 100 after order 1200": ordersAfter(1200, 100); 0 starts at the lowest ID
+        Page<Order> ordersAfter(int orderID, int limit) { return ordersById.page(orderID <= 0 ? null : ordersById.keyOf(orderID), limit); }
+
+        public DataStore() { this(new File(".")); }
+        public DataStore(File dir) { this(dir, null); }
+        public DataStore(File dir, StorageBackend backend) {
+            this.dir = dir;
+            this.backend = backend;
+            this.history = new OrderHistory(dir);
+            for (String c : new String[]{USERS, ITEMS, ORDERS, BILLS}) versions.put(c, new ConcurrentHashMap<>());
+        }
 
-            // Top bar with welcome and logout/back controls
-            JPanel topBar = new JPanel(new BorderLayout());
-            topBar.setBackground(Color.WHITE);
+        // one insert/update (value != null) or removal (value == null) in a collection
+        static class Change implements Serializable {
+            private static final long serialVersionUID = 1L;
+            final String collection;
+            final Object key;
+            final Object value;
+            Change(String collection, Object key, Object value) { this.collection = collection; this.key = key; this.value = value; }
+            static Change put(String collection, Object key, Object value) { return new Change(collection, key, value); }
+            static Change remove(String collection, Object key) { return new Change(collection, key, null); }
+        }
 
-            JLabel lblWelcome = new JLabel("Welcome, " + admin.getName());
-            lblWelcome.setFont(new Font("Segoe UI", Font.BOLD, 26));
-            lblWelcome.setForeground(new Color(35, 80, 160));
-            topBar.add(lblWelcome, BorderLayout.WEST);
+        // called synchronously, in commit order, after a change has been applied and saved;
+        // previous is the value the change replaced (null for inserts). committedAll follows the
+        // last change of each commit, with the sequence number of that change.
+        interface ChangeListener {
+            void committed(long seq, Change c, Object previous);
+            default void committedAll(long lastSeq) {}
+        }
 
-            JPanel rightTop = new JPanel(new FlowLayout(FlowLayout.RIGHT, 8, 6));
-            rightTop.setBackground(Color.WHITE);
-            JButton btnBack = new JButton("Back to Dashboard");
-            btnBack.setVisible(false); // only visible when in a subpage
-            JButton btnLogout = new JButton("Logout");
-            rightTop.add(btnBack);
-            rightTop.add(btnLogout);
-            topBar.add(rightTop, BorderLayout.EAST);
+        public void addListener(ChangeListener l) { listeners.add(l); }
+        public void removeListener(ChangeListener l) { listeners.remove(l); }
 
-            root.add(topBar, BorderLayout.NORTH);
+        public void load() {
+            pricing = PricingEngine.load(dir);
+            if (backend == null) {
+                String url = System.getProperty("bitewave.storage.url");
+                try { backend = StorageBackend.open(dir, url); }
+                catch (IOException e) { throw new UncheckedIOException("Cannot open storage " + url + ": " + e.getMessage(), e); }
+            }
+            Map<?, ?> m;
+            m = read(USERS); if (m != null) users = new ConcurrentHashMap<>((Map<String, User>) m);
+            m = read(ITEMS); if (m != null) items = new ConcurrentHashMap<>((Map<Integer, Item>) m);
+            m = read(ORDERS); if (m != null) orders = new ConcurrentHashMap<>((Map<Integer, Order>) m);
+            for (Order o : orders.values()) o.lockLegacyTotal(); // not yet shared with any other thread
+            m = read(BILLS); if (m != null) bills = new ConcurrentHashMap<>((Map<Integer, Bill>) m);
 
-            // Center area uses CardLayout: HOME (dashboard cards) and panels
-            centerCardLayout = new CardLayout();
-            centerCardsArea = new JPanel(centerCardLayout);
-            centerCardsArea.setBackground(Color.WHITE);
+            history.load();
+            compactHistory();
+            recomputeIds();
 
-            // HOME card (grid of 4 colored cards)
-            centerCardsArea.add(createHomePanel(), HOME_CARD);
+            // ensure admin exists
+            if (!users.containsKey("admin")) {
+                Admin a = new Admin(allocateUserId(), "admin", "admin123", "Administrator");
+                users.put(a.username, a);
+                saveUsers();
+            }
+            resetVersions();
+            for (Index<?> idx : indexes) idx.rebuild(collection(idx.collection));
+        }
 
-            // Management panels (reuse static creators)
-            centerCardsArea.add(wrapWithHeader(createEmployeesPanel(), "Employees Management"), EMP_PANEL);
-            centerCardsArea.add(wrapWithHeader(createItemsPanel(true), "Items Management"), ITEM_PANEL);
-            centerCardsArea.add(wrapWithHeader(createOrdersPanel(true), "Orders Management"), ORDER_PANEL);
-            centerCardsArea.add(wrapWithHeader(createBillsPanel(), "Bills"), BILLS_PANEL);
+        // IDs are handed out under the store lock so several terminals can create records at once
+        public synchronized int allocateUserId() { return nextUserId++; }
+        public synchronized int allocateItemId() { return nextItemId++; }
+        public synchronized int allocateOrderId() { return nextOrderId++; }
+        public synchronized int allocateBillId() { return nextBillId++; }
 
-            root.add(centerCardsArea, BorderLayout.CENTER);
+        void recomputeIds() {
+            for (User u : users.values()) nextUserId = Math.max(nextUserId, u.userID+1);
+            for (int id: items.keySet()) nextItemId = Math.max(nextItemId, id+1);
+            nextOrderId = Math.max(nextOrderId, history.maxOrderId()+1);
+            for (int id: orders.keySet()) nextOrderId = Math.max(nextOrderId, id+1);
+            for (int id: bills.keySet()) nextBillId = Math.max(nextBillId, id+1);
+        }
 
-            // Footer (small)
-            JPanel footer = new JPanel(new FlowLayout(FlowLayout.LEFT));
-            footer.setBackground(Color.WHITE);
-            footer.add(new JLabel("BiteWave — Admin Control Panel"));
-            root.add(footer, BorderLayout.SOUTH);
+        // ---- mutations: every write goes through commit so it lands in the change log ----
+        public void putUser(User u) { commit(Collections.singletonList(Change.put(USERS, u.username, u))); }
+        public void removeUser(String username) { commit(Collections.singletonList(Change.remove(USERS, username))); }
+        public void putItem(Item it) { commit(Collections.singletonList(Change.put(ITEMS, it.itemID, it))); }
+        public void removeItem(int itemID) { commit(Collections.singletonList(Change.remove(ITEMS, itemID))); }
+        public void putOrder(Order o) { commit(Collections.singletonList(Change.put(ORDERS, o.orderID, o))); }
+        public void removeOrder(int orderID) { commit(Collections.singletonList(Change.remove(ORDERS, orderID))); }
+        public void putBill(Bill b) { commit(Collections.singletonList(Change.put(BILLS, b.billID, b))); }
+
+        // applies the changes, saves them in one backend write and notifies listeners
+        public synchronized void commit(List<Change> changes) {
+            if (readOnly) throw new IllegalStateException("This terminal is a read-only replica.");
+            publish(changes, applyAndSave(changes));
+            if (history.today() != compactedDay) compactHistory();
+        }
 
-            // actions
-            btnLogout.addActionListener(e -> {
-                dispose();
-                new LoginFrame();
-            });
+        // applies a whole commit and saves it in one backend write; read views opened from here on see all of it
+        private Object[] applyAndSave(List<Change> changes) {
+            Object[] previous = new Object[changes.size()];
+            long horizon = horizon(), ver = version + 1;
+            for (int i = 0; i < previous.length; i++) previous[i] = apply(changes.get(i), ver, horizon);
+            try {
+                persist(changes);
+            } catch (UncheckedIOException e) {
+                // not saved: put the old values back so neither listeners nor read views see the commit
+                for (int i = previous.length - 1; i >= 0; i--) {
+                    Change c = changes.get(i);
+                    apply(new Change(c.collection, c.key, previous[i]), ver, horizon);
+                }
+                version = ver;
+                throw e;
+            }
+            version = ver;
+            return previous;
+        }
 
-            btnBack.addActionListener(e -> {
-                centerCardLayout.show(centerCardsArea, HOME_CARD);
-                btnBack.setVisible(false);
-                setTitle("Admin Dashboard - " + admin.getName());
-            });
+        private void publish(List<Change> changes, Object[] previous) {
+            for (int i = 0; i < previous.length; i++) {
+                seq++;
+                for (ChangeListener l : listeners) l.committed(seq, changes.get(i), previous[i]);
+            }
+            for (ChangeListener l : listeners) l.committedAll(seq);
+        }
 
-            // when switching cards, show/hide back button appropriately
-            // also allow panels to request switching (we will handle in card click code)
-            // We'll detect when a non-home card is visible by capturing requests on card switches.
-            // However CardLayout doesn't give an event, so we handle via actions that switch cards:
-            // We'll expose a helper to switch cards and update back button visibility.
+        // moves closed business days out of the hot order map into history partitions
+        public synchronized void compactHistory() {
+            List<Order> moved = history.compact(orders);
+            if (!moved.isEmpty()) {
+                long horizon = horizon(), ver = version + 1;
+                List<Change> removals = new ArrayList<>(moved.size());
+                for (Order o : moved) {
+                    orders.remove(o.orderID);
+                    recordVersion(ORDERS, o.orderID, null, ver, horizon);
+                    updateIndexes(ORDERS, o.orderID, o, null);
+                    removals.add(Change.remove(ORDERS, o.orderID));
+                }
+                version = ver;
+                persist(removals);
+            }
+            compactedDay = history.today();
+        }
 
-            // Expose helper via local method (lambda-like)
-            Runnable showHome = () -> {
-                centerCardLayout.show(centerCardsArea, HOME_CARD);
-                btnBack.setVisible(false);
-                setTitle("Admin Dashboard - " + admin.getName());
-            };
+        // replica side: apply one primary commit whose last change has the given sequence number,
+        // as one local commit so the replica never holds or shows part of it
+        synchronized void applyReplicated(long lastSeq, List<Change> changes) {
+            Object[] previous = applyAndSave(changes);
+            seq = lastSeq - changes.size();
+            publish(changes, previous);
+        }
 
-            // card click handlers will call showPanel(name)
-            // We will implement simple methods via anonymous inner class fields:
-            // To allow sub-panels to call it (not needed now), but we'll only switch from this class.
+        // replica side: replace all contents with a snapshot taken at the given sequence number
+        synchronized void restoreSnapshot(long snapshotSeq, Object[] maps) {
+            // applied as changes so open read views keep their old contents
+            long horizon = horizon(), ver = version + 1;
+            String[] names = {USERS, ITEMS, ORDERS, BILLS};
+            for (int i = 0; i < names.length; i++) {
+                Map<Object, Object> current = (Map<Object, Object>) (Map<?, ?>) collection(names[i]);
+                Map<?, ?> incoming = (Map<?, ?>) maps[i];
+                for (Object key : new ArrayList<>(current.keySet())) {
+                    if (!incoming.containsKey(key)) {
+                        updateIndexes(names[i], key, current.remove(key), null);
+                        recordVersion(names[i], key, null, ver, horizon);
+                    }
+                }
+                for (Map.Entry<?, ?> e : incoming.entrySet()) {
+                    updateIndexes(names[i], e.getKey(), current.put(e.getKey(), e.getValue()), e.getValue());
+                    recordVersion(names[i], e.getKey(), e.getValue(), ver, horizon);
+                }
+            }
+            version = ver;
+            if (maps.length > 4) history.restoreRollups((Map<Integer, DayRollup>) maps[4]);
+            nextUserId = nextItemId = nextOrderId = nextBillId = 1;
+            recomputeIds();
+            saveUsers(); saveItems(); saveOrders(); saveBills();
+            seq = snapshotSeq;
+        }
 
-            setContentPane(root);
-            setVisible(true);
+        // the rollups travel along so a replica knows the order IDs already used by closed days
+        synchronized Object[] snapshotMaps() { return new Object[]{users, items, orders, bills, history.rollups}; }
+
+        private Object apply(Change c, long ver, long horizon) {
+            Map<Object, Object> m = (Map<Object, Object>) (Map<?, ?>) collection(c.collection);
+            recordVersion(c.collection, c.key, c.value, ver, horizon);
+            Object previous = c.value == null ? m.remove(c.key) : m.put(c.key, c.value);
+            updateIndexes(c.collection, c.key, previous, c.value);
+            if (c.value == null) return previous;
+            if (c.value instanceof User) nextUserId = Math.max(nextUserId, ((User) c.value).userID+1);
+            else if (c.value instanceof Item) nextItemId = Math.max(nextItemId, ((Item) c.value).itemID+1);
+            else if (c.value instanceof Order) nextOrderId = Math.max(nextOrderId, ((Order) c.value).orderID+1);
+            else if (c.value instanceof Bill) nextBillId = Math.max(nextBillId, ((Bill) c.value).billID+1);
+            return previous;
         }
 
-        // create the home dashboard with 4 colored cards
-        private JPanel createHomePanel() {
-            JPanel p = new JPanel(new BorderLayout(12,12));
-            p.setBackground(Color.WHITE);
+        // ---- sorted indexes and keyset pagination ----
+        // index entry key: the row's sort value, then its primary key so equal sort values stay distinct
+        static final class IndexKey implements Comparable<IndexKey> {
+            final Comparable<Object> sort;
+            final Comparable<Object> id;
+            IndexKey(Object sort, Object id) { this.sort = (Comparable<Object>) sort; this.id = (Comparable<Object>) id; }
+            static IndexKey of(Object sort, Object id) { return new IndexKey(sort, id); }
+            public int compareTo(IndexKey o) { int c = sort.compareTo(o.sort); return c != 0 ? c : id.compareTo(o.id); }
+            @Override public boolean equals(Object o) { return o instanceof IndexKey && compareTo((IndexKey) o) == 0; }
+            @Override public int hashCode() { return 31 * sort.hashCode() + id.hashCode(); }
+        }
 
-            JLabel hdr = new JLabel("Admin Control Center");
-            hdr.setFont(new Font("Segoe UI", Font.BOLD, 22));
-            hdr.setForeground(new Color(25, 65, 140));
-            p.add(hdr, BorderLayout.NORTH);
+        // one page of rows; pass next to the following page() call, null when there are no more rows
+        static final class Page<V> {
+            final List<V> rows;
+            final IndexKey next;
+            Page(List<V> rows, IndexKey next) { this.rows = rows; this.next = next; }
+        }
 
-            JPanel grid = new JPanel(new GridLayout(1,4,18,18));
-            grid.setBackground(Color.WHITE);
-            grid.setBorder(BorderFactory.createEmptyBorder(20,20,20,20));
+        // A sorted view of one collection backed by a skip list. Pages are found by key, not offset,
+        // so rows inserted or removed elsewhere never shift or repeat rows of a running iteration.
+        static final class Index<V> {
+            final String collection;
+            private final Function<V, Object> sortValue; // null when sorted by primary key
+            private final ConcurrentSkipListMap<IndexKey, V> entries = new ConcurrentSkipListMap<>();
+            Index(String collection, Function<V, Object> sortValue) { this.collection = collection; this.sortValue = sortValue; }
 
-            // Card factory
-            JPanel cardEmp = makeCard("Add Employee", "Create and manage employees", new Color(52, 152, 219));
-            JPanel cardItem = makeCard("Add Item", "Create and manage menu items", new Color(46, 204, 113));
-            JPanel cardOrder = makeCard("Add Order", "Create new orders", new Color(243, 156, 18));
-            JPanel cardBills = makeCard("View Bills", "See generated bills", new Color(155, 89, 182));
+            static <V> Index<V> byId(String collection) { return new Index<>(collection, null); }
 
-            grid.add(cardEmp); grid.add(cardItem); grid.add(cardOrder); grid.add(cardBills);
+            // rows in index order; weakly consistent, never throws on concurrent change
+            Collection<V> values() { return entries.values(); }
+            int size() { return entries.size(); }
 
-            p.add(grid, BorderLayout.CENTER);
+            // cursor positioned at the given row, e.g. to continue "after order 1200"
+            IndexKey keyOf(Object id, V row) { return new IndexKey(sortOf(id, row), id); }
 
-            // quick stats area under cards
-            JPanel stats = new JPanel(new GridLayout(1,4,12,12));
-            stats.setBackground(Color.WHITE);
-            stats.setBorder(BorderFactory.createEmptyBorder(8,8,8,8));
-            stats.add(createStatBox("Employees", String.valueOf(countEmployees())));
-            stats.add(createStatBox("Items", String.valueOf(store.items.size())));
-            stats.add(createStatBox("Orders", String.valueOf(store.orders.size())));
-            stats.add(createStatBox("Bills", String.valueOf(store.bills.size())));
-            p.add(stats, BorderLayout.SOUTH);
+            // cursor from the primary key alone, for indexes sorted by it; the row may since have been
+            // deleted or compacted away
+            IndexKey keyOf(Object id) {
+                if (sortValue != null) throw new IllegalStateException(collection + " index is not sorted by ID");
+                return new IndexKey(id, id);
+            }
 
-            // card clicks: switch centerCardLayout to respective panels and show back button
-            cardEmp.addMouseListener(new MouseAdapter() {
-                public void mouseClicked(MouseEvent e) { showPanel(EMP_PANEL); }
-            });
-            cardItem.addMouseListener(new MouseAdapter() {
-                public void mouseClicked(MouseEvent e) { showPanel(ITEM_PANEL); }
-            });
-            cardOrder.addMouseListener(new MouseAdapter() {
-                public void mouseClicked(MouseEvent e) { showPanel(ORDER_PANEL); }
-            });
-            cardBills.addMouseListener(new MouseAdapter() {
-                public void mouseClicked(MouseEvent e) { showPanel(BILLS_PANEL); }
-            });
+            private Object sortOf(Object id, V row) { return sortValue == null ? id : sortValue.apply(row); }
+
+            Page<V> page(IndexKey after, int limit) { return page(after, limit, false); }
+
+            Page<V> page(IndexKey after, int limit, boolean descending) {
+                // an empty page with no cursor means end of data, so a zero limit would read as "no rows"
+                if (limit <= 0) throw new IllegalArgumentException("limit must be positive: " + limit);
+                NavigableMap<IndexKey, V> m = descending ? entries.descendingMap() : entries;
+                if (after != null) m = m.tailMap(after, false);
+                List<V> rows = new ArrayList<>(Math.min(limit, 1024));
+                IndexKey last = null;
+                for (Map.Entry<IndexKey, V> e : m.entrySet()) {
+                    if (rows.size() == limit) return new Page<>(rows, last);
+                    rows.add(e.getValue());
+                    last = e.getKey();
+                }
+                return new Page<>(rows, null);
+            }
 
-            return p;
+            void update(Object id, V previous, V value) {
+                IndexKey before = previous == null ? null : new IndexKey(sortOf(id, previous), id);
+                IndexKey after = value == null ? null : new IndexKey(sortOf(id, value), id);
+                if (after != null) entries.put(after, value);
+                if (before != null && !before.equals(after)) entries.remove(before);
+            }
+
+            void rebuild(Map<?, ?> source) {
+                entries.clear();
+                for (Map.Entry<?, ?> e : source.entrySet()) update(e.getKey(), null, (V) e.getValue());
+            }
         }
 
-        // utility to change visible card and update title/back button
-        private void showPanel(String cardName) {
-            centerCardLayout.show(centerCardsArea, cardName);
-            // find swal components (top right back button)
-            // We can locate the button by traversing the frame content
-            Component[] comps = getContentPane().getComponents();
-            // top component (BorderLayout.NORTH) is top bar (a JPanel)
-            if (comps.length > 0 && comps[0] instanceof JPanel) {
-                JPanel topBar = (JPanel) comps[0];
-                for (Component c : topBar.getComponents()) {
-                    if (c instanceof JPanel) {
-                        JPanel right = (JPanel) c;
-                        for (Component inner : right.getComponents()) {
-                            if (inner instanceof JButton) {
-                                JButton btn = (JButton) inner;
-                                if ("Back to Dashboard".equals(btn.getText())) {
-                                    btn.setVisible(true);
-                                }
-                            }
-                        }
-                    }
-                }
+        private void updateIndexes(String collection, Object key, Object previous, Object value) {
+            for (Index<?> idx : indexes) if (idx.collection.equals(collection)) ((Index<Object>) idx).update(key, previous, value);
+        }
+
+        // ---- MVCC version chains ----
+        static final class Version {
+            final ConcurrentHashMap<Object, Version> map;
+            final Object key;
+            final Object value; // null = removed
+            final long version;
+            volatile Version older;
+            Version(ConcurrentHashMap<Object, Version> map, Object key, Object value, long version, Version older) {
+                this.map = map; this.key = key; this.value = value; this.version = version; this.older = older;
             }
-            // update title
-            String t = "Admin Dashboard - " + admin.getName();
-            if (EMP_PANEL.equals(cardName)) t = "Employees - " + admin.getName();
-            if (ITEM_PANEL.equals(cardName)) t = "Items - " + admin.getName();
-            if (ORDER_PANEL.equals(cardName)) t = "Orders - " + admin.getName();
-            if (BILLS_PANEL.equals(cardName)) t = "Bills - " + admin.getName();
-            setTitle(t);
         }
 
-        // helper to make a colored card (panel) with hover & cursor change
-        private JPanel makeCard(String title, String subtitle, Color bg) {
-            JPanel card = new JPanel(new BorderLayout());
-            card.setBackground(bg);
-            card.setBorder(BorderFactory.createEmptyBorder(16,16,16,16));
-            card.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+        // a consistent, read-only view of all collections as of one commit; close it when done
+        final class ReadView implements AutoCloseable {
+            final long version;
+            private ReadView(long version) { this.version = version; }
+
+            <T> T get(String collection, Object key) { return (T) valueAt(versions.get(collection).get(key), version); }
+
+            <T> Iterable<T> values(String collection) {
+                Collection<Version> heads = versions.get(collection).values();
+                return () -> new Iterator<T>() {
+                    final Iterator<Version> it = heads.iterator();
+                    Object next = advance();
+                    private Object advance() {
+                        while (it.hasNext()) { Object v = valueAt(it.next(), version); if (v != null) return v; }
+                        return null;
+                    }
+                    public boolean hasNext() { return next != null; }
+                    public T next() {
+                        if (next == null) throw new NoSuchElementException();
+                        Object v = next; next = advance(); return (T) v;
+                    }
+                };
+            }
 
-            JLabel lbl = new JLabel("<html><div style='text-align:center'><span style='font-size:18pt;color:white;font-weight:bold;'>" + title +
-                    "</span><br><span style='font-size:10pt;color:white;'>" + subtitle + "</span></div></html>", SwingConstants.CENTER);
-            lbl.setHorizontalAlignment(SwingConstants.CENTER);
-            card.add(lbl, BorderLayout.CENTER);
+            Order order(int orderID) { return get(ORDERS, orderID); }
+            Item item(int itemID) { return get(ITEMS, itemID); }
+            Iterable<User> users() { return values(USERS); }
+            Iterable<Item> items() { return values(ITEMS); }
+            Iterable<Order> orders() { return values(ORDERS); }
+            Iterable<Bill> bills() { return values(BILLS); }
 
-            // hover effect
-            card.addMouseListener(new MouseAdapter() {
-                public void mouseEntered(MouseEvent e) { card.setBackground(brighten(bg, 0.05f)); }
-                public void mouseExited(MouseEvent e) { card.setBackground(bg); }
-            });
-            return card;
+            public void close() { openViews.remove(this); }
         }
 
-        // small stat box under cards
-        private JPanel createStatBox(String title, String value) {
-            JPanel p = new JPanel(new BorderLayout());
-            p.setBackground(new Color(245,245,245));
-            p.setBorder(BorderFactory.createEmptyBorder(8,8,8,8));
-            JLabel v = new JLabel(value, SwingConstants.CENTER);
-            v.setFont(new Font("Segoe UI", Font.BOLD, 18));
-            JLabel t = new JLabel(title, SwingConstants.CENTER);
-            t.setFont(new Font("Segoe UI", Font.PLAIN, 12));
-            p.add(v, BorderLayout.CENTER);
-            p.add(t, BorderLayout.SOUTH);
-            return p;
+        public ReadView openReadView() {
+            while (true) {
+                long v = version;
+                ReadView view = new ReadView(v);
+                openViews.add(view);
+                if (version == v) return view; // registered before any writer could trim what it needs
+                openViews.remove(view);
+            }
         }
 
-        // brighten color helper
-        private Color brighten(Color c, float factor) {
-            int r = Math.min(255, (int)(c.getRed() * (1 + factor)));
-            int g = Math.min(255, (int)(c.getGreen() * (1 + factor)));
-            int b = Math.min(255, (int)(c.getBlue() * (1 + factor)));
-            return new Color(r,g,b);
+        private static Object valueAt(Version e, long v) {
+            while (e != null && e.version > v) e = e.older;
+            return e == null ? null : e.value;
         }
 
-        // wrap provided panel with top bar (Back and Logout already handled in main top bar)
-        private JPanel wrapWithHeader(JPanel body, String title) {
-            JPanel wrapper = new JPanel(new BorderLayout());
-            wrapper.setBackground(Color.WHITE);
-            JLabel h = new JLabel(title);
-            h.setFont(new Font("Segoe UI", Font.BOLD, 20));
-            h.setBorder(BorderFactory.createEmptyBorder(10,10,10,10));
-            wrapper.add(h, BorderLayout.NORTH);
-            wrapper.add(body, BorderLayout.CENTER);
-            return wrapper;
+        // oldest version an open view (or a view being opened right now) may still read
+        private long horizon() {
+            long h = version;
+            for (ReadView v : openViews) h = Math.min(h, v.version);
+            trimVersions(h);
+            return h;
         }
 
-        // Employees panel (copied/adapted)
-        private JPanel createEmployeesPanel() {
-            JPanel panel = new JPanel(new BorderLayout(6,6));
-            panel.setBackground(Color.WHITE);
-            DefaultTableModel model = new DefaultTableModel(new Object[]{"UserID","Username","Name","Role"},0) {
-                public boolean isCellEditable(int r,int c){ return false; }
-            };
-            JTable table = new JTable(model);
-            refreshEmployeesTable(model);
-            panel.add(new JScrollPane(table), BorderLayout.CENTER);
-
-            JPanel south = new JPanel();
-            south.setBackground(Color.WHITE);
-            JButton btnAdd = new JButton("Add Employee");
-            JButton btnEdit = new JButton("Edit Selected");
-            JButton btnDelete = new JButton("Delete Selected");
-            south.add(btnAdd); south.add(btnEdit); south.add(btnDelete);
-            panel.add(south, BorderLayout.SOUTH);
+        private void recordVersion(String collection, Object key, Object value, long ver, long horizon) {
+            ConcurrentHashMap<Object, Version> m = versions.get(collection);
+            Version head = new Version(m, key, value, ver, m.get(key));
+            trim(head, horizon);
+            m.put(key, head);
+            if (head.older != null || value == null) trimQueue.add(head);
+        }
 
-            btnAdd.addActionListener(e -> {
-                JTextField tfUser = new JTextField();
-                JTextField tfName = new JTextField();
-                JPasswordField pf = new JPasswordField();
-                Object[] fields = {"Username:", tfUser, "Name:", tfName, "Password:", pf};
-                int res = JOptionPane.showConfirmDialog(panel, fields, "Add Employee", JOptionPane.OK_CANCEL_OPTION);
-                if (res==JOptionPane.OK_OPTION) {
-                    String u = tfUser.getText().trim();
-                    String name = tfName.getText().trim();
-                    String pass = new String(pf.getPassword()).trim();
-                    if (u.isEmpty()||name.isEmpty()||pass.isEmpty()) { JOptionPane.showMessageDialog(panel, "All fields required."); return; }
-                    if (store.users.containsKey(u)) { JOptionPane.showMessageDialog(panel, "Username exists."); return; }
-                    Employee emp = new Employee(store.nextUserId++, u, pass, name);
-                    store.users.put(u, emp); store.saveUsers();
-                    refreshEmployeesTable(model);
-                    // update stats on home
-                }
-            });
+        // keeps the newest entry at or below horizon and drops everything older
+        private static void trim(Version head, long horizon) {
+            for (Version e = head; e != null; e = e.older) if (e.version <= horizon) { e.older = null; return; }
+        }
 
-            btnEdit.addActionListener(e -> {
-                int sel = table.getSelectedRow();
-                if (sel < 0) { JOptionPane.showMessageDialog(panel, "Select a user."); return; }
-                String username = (String) model.getValueAt(sel,1);
-                User u = store.users.get(username);
-                if (u == null) return;
-                JTextField tfName = new JTextField(u.getName());
-                JPasswordField pf = new JPasswordField(u.getPassword());
-                Object[] fields = {"Name:", tfName, "Password:", pf};
-                int res = JOptionPane.showConfirmDialog(panel, fields, "Edit User", JOptionPane.OK_CANCEL_OPTION);
-                if (res == JOptionPane.OK_OPTION) {
-                    u.name = tfName.getText().trim();
-                    u.password = new String(pf.getPassword()).trim();
-                    store.saveUsers(); refreshEmployeesTable(model);
-                }
-            });
+        // finishes trimming chains and tombstones written while views were open
+        private void trimVersions(long horizon) {
+            while (!trimQueue.isEmpty() && trimQueue.peek().version <= horizon) {
+                Version v = trimQueue.poll();
+                Version head = v.map.get(v.key);
+                if (head == null) continue;
+                trim(head, horizon);
+                if (head.value == null && head.version <= horizon) v.map.remove(v.key, head);
+            }
+        }
 
-            btnDelete.addActionListener(e -> {
-                int sel = table.getSelectedRow();
-                if (sel < 0) { JOptionPane.showMessageDialog(panel, "Select a user."); return; }
-                String username = (String) model.getValueAt(sel,1);
-                if (username.equals("admin")) { JOptionPane.showMessageDialog(panel, "Cannot delete admin."); return; }
-                int ok = JOptionPane.showConfirmDialog(panel, "Delete user " + username + "?", "Confirm", JOptionPane.YES_NO_OPTION);
-                if (ok == JOptionPane.YES_OPTION) {
-                    store.users.remove(username); store.saveUsers(); refreshEmployeesTable(model);
-                }
-            });
+        private void resetVersions() {
+            trimQueue.clear();
+            for (String c : versions.keySet()) {
+                ConcurrentHashMap<Object, Version> m = versions.get(c);
+                m.clear();
+                for (Map.Entry<?, ?> e : collection(c).entrySet()) m.put(e.getKey(), new Version(m, e.getKey(), e.getValue(), version, null));
+            }
+        }
 
-            return panel;
+        Map<?, ?> collection(String name) {
+            switch (name) {
+                case USERS: return users;
+                case ITEMS: return items;
+                case ORDERS: return orders;
+                case BILLS: return bills;
+                default: throw new IllegalArgumentException("Unknown collection: " + name);
+            }
         }
 
-        private void refreshEmployeesTable(DefaultTableModel model) {
-            model.setRowCount(0);
-            List<User> list = new ArrayList<>(store.users.values());
-            list.sort(Comparator.comparing(u->u.username));
-            for (User u : list) model.addRow(new Object[]{u.userID, u.username, u.name, u.getRole()});
+        // null only when nothing has been saved yet; a collection that cannot be read stops the load,
+        // since carrying on empty would recreate admin and overwrite the saved records
+        private Map<?, ?> read(String collection) {
+            try { return backend.read(collection); }
+            catch (IOException e) { throw new UncheckedIOException("Cannot read " + collection + " from " + backend.describe() + ": " + e.getMessage(), e); }
         }
 
-        // Items panel: call static method (adapted) to reuse logic
-        private JPanel createItemsPanel(boolean isAdminView) {
-            return RestaurantApp.createItemsPanel(isAdminView);
+        private void persist(List<Change> changes) {
+            try { backend.save(changes, this); }
+            catch (IOException e) { throw new UncheckedIOException("Cannot save to " + backend.describe() + ": " + e.getMessage(), e); }
         }
 
-        private JPanel createOrdersPanel(boolean isAdminView) {
-            return RestaurantApp.createOrdersPanel(isAdminView);
+        private void write(String collection) {
+            try { backend.write(collection, collection(collection)); }
+            catch (IOException e) { throw new UncheckedIOException("Cannot save " + collection + " to " + backend.describe() + ": " + e.getMessage(), e); }
         }
 
-        private JPanel createBillsPanel() {
-            return RestaurantApp.createBillsPanel();
+        public void saveUsers() { write(USERS); }
+        public void saveItems() { write(ITEMS); }
+        public void saveOrders() { write(ORDERS); }
+        public void saveBills() { write(BILLS); }
+
+        String storageName() { return backend == null ? "not loaded" : backend.describe(); }
+
+        public synchronized void close() {
+            try { if (backend != null) backend.close(); } catch (IOException e) { e.printStackTrace(); }
         }
+    }
 
-        private int countEmployees() {
-            int c = 0;
-            for (User u : store.users.values()) if (u instanceof Employee) c++;
-            return c;
+    // ------------------ Storage backends ------------------
+    // DataStore keeps its collections in memory and hands every commit to a backend to make it durable.
+    // The default backend is the original layout of one serialized file per collection. Setting
+    // -Dbitewave.storage.url to a JDBC URL (e.g. jdbc:h2:{dir}/bitewave, where {dir} is the data
+    // directory) stores one row per record instead, so a commit writes only the rows it touched.
+    // The JDBC driver is not bundled; put its jar on the classpath.
+    interface StorageBackend extends Closeable {
+        Map<?, ?> read(String collection) throws IOException; // null when nothing has been saved yet
+        void write(String collection, Map<?, ?> contents) throws IOException; // replaces a whole collection
+        void save(List<DataStore.Change> changes, DataStore store) throws IOException; // one commit, called under the store lock
+        String describe();
+
+        // a configured database that cannot be opened is an error: falling back to the files would take
+        // orders against stale data that never reach the database
+        static StorageBackend open(File dir, String url) throws IOException {
+            if (url == null || url.isEmpty() || url.equals("files")) return new FileStorage(dir);
+            return new JdbcStorage(dir, url);
         }
     }
 
-    static class EmployeeDashboard extends JFrame {
-        Employee emp;
-        JTabbedPane tabs;
-        public EmployeeDashboard(Employee emp) {
-            super("Employee Dashboard - " + emp.getName());
-            this.emp = emp;
-            setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-            setSize(900,600);
-            setLocationRelativeTo(null);
-            tabs = new JTabbedPane();
-            tabs.addTab("Items", createItemsPanel(false));
-            tabs.addTab("Orders", createOrdersPanel(false));
-            tabs.addTab("Logout", new JPanel());
-            tabs.addChangeListener(e -> { if (tabs.getSelectedIndex() == 2) { dispose(); new LoginFrame(); } });
+    // users.ser, items.ser, orders.ser and bills.ser; a commit rewrites each collection it touched
+    static class FileStorage implements StorageBackend {
+        final File dir;
+        FileStorage(File dir) { this.dir = dir; }
+
+        File file(String collection) { return new File(dir, collection + ".ser"); }
+
+        public Map<?, ?> read(String collection) throws IOException {
+            File f = file(collection);
+            if (!f.exists()) return null;
+            try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(f))) {
+                Object o = in.readObject();
+                if (!(o instanceof Map)) throw new IOException(f + " does not hold a map");
+                return (Map<?, ?>) o;
+            } catch (ClassNotFoundException e) { throw new IOException(f + ": " + e.getMessage(), e); }
+        }
 
-            setContentPane(tabs);
-            setVisible(true);
+        public void write(String collection, Map<?, ?> contents) throws IOException {
+            try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(file(collection)))) {
+                out.writeObject(contents);
+            }
+        }
+
+        public void save(List<DataStore.Change> changes, DataStore store) throws IOException {
+            Set<String> touched = new LinkedHashSet<>();
+            for (DataStore.Change c : changes) touched.add(c.collection);
+            for (String c : touched) write(c, store.collection(c));
         }
+
+        public String describe() { return "serialized files in " + dir.getPath(); }
+        public void close() {}
     }
 
-    // ------------------ Items / Orders / Bills logic reused ------------------
-    static JPanel createItemsPanel(boolean isAdminView) {
-        JPanel panel = new JPanel(new BorderLayout(6,6));
-        DefaultTableModel model = new DefaultTableModel(new Object[]{"ItemID","Name","Price","Qty","Description"},0) {
-            public boolean isCellEditable(int r,int c){ return false; }
+    // One table per collection with the serialized record in a BLOB column; orders also carry date,
+    // employee and billed columns with indexes for reporting queries. A commit deletes and re-inserts
+    // the rows it touched in one transaction using batched prepared statements, which works the same
+    // on every SQL dialect. A new database is filled from the serialized files found in the data directory.
+    static class JdbcStorage implements StorageBackend {
+        static final int BATCH = 500; // rows per executeBatch
+        static final String[] COLLECTIONS = {DataStore.USERS, DataStore.ITEMS, DataStore.ORDERS, DataStore.BILLS};
+        static final String[] SCHEMA = {
+                "CREATE TABLE users (username VARCHAR(100) PRIMARY KEY, data BLOB)",
+                "CREATE TABLE items (item_id INT PRIMARY KEY, data BLOB)",
+                "CREATE TABLE orders (order_id INT PRIMARY KEY, order_date TIMESTAMP, employee VARCHAR(100), billed BOOLEAN, data BLOB)",
+                "CREATE INDEX orders_date ON orders (order_date)",
+                "CREATE INDEX orders_employee ON orders (employee)",
+                "CREATE INDEX orders_billed ON orders (billed)",
+                "CREATE TABLE bills (bill_id INT PRIMARY KEY, order_id INT, data BLOB)",
+                "CREATE INDEX bills_order ON bills (order_id)",
         };
-        JTable table = new JTable(model);
-        refreshItems(model);
-        panel.add(new JScrollPane(table), BorderLayout.CENTER);
 
-        JPanel south = new JPanel();
-        JButton btnAdd = new JButton("Add Item");
-        JButton btnEdit = new JButton("Edit Selected");
-        JButton btnDelete = new JButton("Delete Selected");
-        south.add(btnAdd); south.add(btnEdit); south.add(btnDelete);
-        panel.add(south, BorderLayout.SOUTH);
+        final String url;
+        private final Connection conn;
+        private final Map<String, PreparedStatement> inserts = new HashMap<>();
+        private final Map<String, PreparedStatement> deletes = new HashMap<>();
 
-        btnAdd.addActionListener(e -> {
-            JTextField tfName = new JTextField();
-            JTextField tfPrice = new JTextField();
-            JTextField tfQty = new JTextField("0");
-            JTextField tfDesc = new JTextField();
-            Object[] fields = {"Name:", tfName, "Price:", tfPrice, "Quantity:", tfQty, "Description:", tfDesc};
-            int res = JOptionPane.showConfirmDialog(panel, fields, "Add Item", JOptionPane.OK_CANCEL_OPTION);
-            if (res == JOptionPane.OK_OPTION) {
-                try {
-                    String name = tfName.getText().trim();
-                    double price = Double.parseDouble(tfPrice.getText().trim());
-                    int qty = Integer.parseInt(tfQty.getText().trim());
-                    String desc = tfDesc.getText().trim();
-                    if (name.isEmpty()) { JOptionPane.showMessageDialog(panel, "Name required."); return; }
-                    Item it = new Item(store.nextItemId++, name, price, qty, desc);
-                    store.items.put(it.itemID, it); store.saveItems(); refreshItems(model);
-                } catch (Exception ex) { JOptionPane.showMessageDialog(panel, "Invalid price/qty."); }
+        JdbcStorage(File dir, String url) throws IOException {
+            this.url = url.replace("{dir}", dir.getAbsolutePath());
+            try {
+                conn = DriverManager.getConnection(this.url);
+            } catch (SQLException e) { throw new IOException(e.getMessage(), e); }
+            try {
+                conn.setAutoCommit(false);
+                boolean created = createSchema();
+                for (String c : COLLECTIONS) {
+                    inserts.put(c, conn.prepareStatement(insertSql(c)));
+                    deletes.put(c, conn.prepareStatement("DELETE FROM " + c + " WHERE " + keyColumn(c) + " = ?"));
+                }
+                if (created) copyFrom(new FileStorage(dir));
+            } catch (SQLException e) {
+                close();
+                throw new IOException(e.getMessage(), e);
             }
-        });
+        }
 
-        btnEdit.addActionListener(e -> {
-            int sel = table.getSelectedRow();
-            if (sel < 0) { JOptionPane.showMessageDialog(panel, "Select an item."); return; }
-            int id = (int) model.getValueAt(sel,0);
-            Item it = store.items.get(id);
-            if (it == null) return;
-            JTextField tfName = new JTextField(it.itemName);
-            JTextField tfPrice = new JTextField(String.valueOf(it.price));
-            JTextField tfQty = new JTextField(String.valueOf(it.quantity));
-            JTextField tfDesc = new JTextField(it.description);
-            Object[] fields = {"Name:", tfName, "Price:", tfPrice, "Quantity:", tfQty, "Description:", tfDesc};
-            int res = JOptionPane.showConfirmDialog(panel, fields, "Edit Item", JOptionPane.OK_CANCEL_OPTION);
-            if (res == JOptionPane.OK_OPTION) {
+        static String keyColumn(String collection) {
+            switch (collection) {
+                case DataStore.USERS: return "username";
+                case DataStore.ITEMS: return "item_id";
+                case DataStore.ORDERS: return "order_id";
+                case DataStore.BILLS: return "bill_id";
+                default: throw new IllegalArgumentException("Unknown collection: " + collection);
+            }
+        }
+
+        static String insertSql(String collection) {
+            switch (collection) {
+                case DataStore.ORDERS: return "INSERT INTO orders (order_id, order_date, employee, billed, data) VALUES (?, ?, ?, ?, ?)";
+                case DataStore.BILLS: return "INSERT INTO bills (bill_id, order_id, data) VALUES (?, ?, ?)";
+                default: return "INSERT INTO " + collection + " (" + keyColumn(collection) + ", data) VALUES (?, ?)";
+            }
+        }
+
+        static Object keyOf(Object value) {
+            if (value instanceof User) return ((User) value).username;
+            if (value instanceof Item) return ((Item) value).itemID;
+            if (value instanceof Order) return ((Order) value).orderID;
+            return ((Bill) value).billID;
+        }
+
+        // true when the tables did not exist yet
+        private boolean createSchema() throws SQLException {
+            try (Statement st = conn.createStatement()) {
                 try {
-                    it.itemName = tfName.getText().trim();
-                    it.price = Double.parseDouble(tfPrice.getText().trim());
-                    it.quantity = Integer.parseInt(tfQty.getText().trim());
-                    it.description = tfDesc.getText().trim();
-                    store.saveItems(); refreshItems(model);
-                } catch (Exception ex) { JOptionPane.showMessageDialog(panel, "Invalid price/qty."); }
+                    st.executeQuery("SELECT COUNT(*) FROM users WHERE 1 = 0").close();
+                    return false;
+                } catch (SQLException missing) {
+                    conn.rollback(); // some databases abort the transaction on any error
+                }
+                for (String sql : SCHEMA) st.executeUpdate(sql);
+                conn.commit();
+                return true;
             }
-        });
+        }
 
-        btnDelete.addActionListener(e -> {
-            int sel = table.getSelectedRow();
-            if (sel < 0) { JOptionPane.showMessageDialog(panel, "Select an item."); return; }
-            int id = (int) model.getValueAt(sel,0);
-            int ok = JOptionPane.showConfirmDialog(panel, "Delete item " + id + "?", "Confirm", JOptionPane.YES_NO_OPTION);
-            if (ok == JOptionPane.YES_OPTION) {
-                store.items.remove(id); store.saveItems(); refreshItems(model);
+        private void copyFrom(FileStorage files) throws IOException {
+            long n = 0;
+            for (String c : COLLECTIONS) {
+                Map<?, ?> m = files.read(c);
+                if (m == null) continue;
+                write(c, m);
+                n += m.size();
             }
-        });
+            if (n > 0) System.out.println("Copied " + n + " records from " + files.describe() + " into " + url);
+        }
 
-        return panel;
-    }
+        public Map<?, ?> read(String collection) throws IOException {
+            Map<Object, Object> m = new HashMap<>();
+            try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery("SELECT " + keyColumn(collection) + ", data FROM " + collection)) {
+                while (rs.next()) {
+                    Object v;
+                    try { v = Replication.decode(rs.getBytes(2)); }
+                    catch (IOException e) { throw new IOException("row " + rs.getObject(1) + " cannot be decoded: " + e, e); }
+                    if (!(v instanceof User || v instanceof Item || v instanceof Order || v instanceof Bill)) throw new IOException("row " + rs.getObject(1) + " holds " + v);
+                    m.put(keyOf(v), v);
+                }
+                conn.commit();
+            } catch (SQLException e) { throw new IOException(e.getMessage(), e); }
+            return m;
+        }
 
-    static void refreshItems(DefaultTableModel model) {
-        model.setRowCount(0);
-        List<Integer> keys = new ArrayList<>(store.items.keySet()); Collections.sort(keys);
-        for (int id: keys) {
-            Item it = store.items.get(id);
-            model.addRow(new Object[]{it.itemID, it.itemName, it.price, it.quantity, it.description});
+        public void write(String collection, Map<?, ?> contents) throws IOException {
+            try (Statement st = conn.createStatement()) {
+                st.executeUpdate("DELETE FROM " + collection);
+                insert(collection, contents.values());
+                conn.commit();
+            } catch (SQLException e) { throw rollback(e); }
         }
-    }
+
+        // the last change per key wins; each touched key is deleted, then the surviving values inserted
+        public void save(List<DataStore.Change> changes, DataStore store) throws IOException {
+            Map<String, Map<Object, Object>> rows = new LinkedHashMap<>();
+            for (DataStore.Change c : changes) rows.computeIfAbsent(c.collection, k -> new LinkedHashMap<>()).put(c.key, c.value);
+            try {
+                for (Map.Entry<String, Map<Object, Object>> e : rows.entrySet()) {
+                    PreparedStatement del = deletes.get(e.getKey());
+                    int n = 0;
+                    for (Object key : e.getValue().keySet()) {
+                        del.setObject(1, key);
+                        del.addBatch();
+                        if (++n % BATCH == 0) del.executeBatch();
+                    }
+                    if (n % BATCH != 0) del.executeBatch();
+                    insert(e.getKey(), e.getValue().values());
+                }
+                conn.commit();
+            } catch (SQLException e) { throw rollback(e); }
+        }
+
+        private void insert(String collection, Collection<?> values) throws SQLException, IOException {
+            PreparedStatement ins = inserts.get(collection);
+            int n = 0;
+            for (Object v : values) {
+                if (v == null) continue; // removed
+                int i = 1;
+                ins.setObject(i++, keyOf(v));
+                if (v instanceof Order) {
+                    Order o = (Order) v;
+                    ins.setTimestamp(i++, new Timestamp(o.orderDate.getTime()));
+                    ins.setString(i++, o.placedByUsername);
+                    ins.setBoolean(i++, o.billed);
+                } else if (v instanceof Bill) {
+                    ins.setInt(i++, ((Bill) v).orderID);
+                }
+                ins.setBytes(i, Replication.encode(v));
+                ins.addBatch();
+                if (++n % BATCH == 0) ins.executeBatch();
+            }
+            if (n % BATCH != 0) ins.executeBatch();
+        }
+
+        private IOException rollback(SQLException e) {
+            try { conn.rollback(); } catch (SQLException ignored) {}
+            return new IOException(e.getMessage(), e);
+        }
+
+        public String describe() { return url; }
+
+        public void close() {
+            try { conn.close(); } catch (SQLException ignored) {}
+        }
+    }
+
+    static DataStore store = new DataStore();
+    static LiveStats liveStats; // started with the GUI
+
+    public static void main(String[] args) {
+        if (args.length > 0 && !args[0].startsWith("--")) {
+            try { runCommand(args); }
+            catch (UncheckedIOException e) { System.err.println(e.getMessage()); System.exit(1); } // e.g. storage cannot be opened
+            return;
+        }
+        // "--serve-replicas <port>" lets standby terminals follow this one
+        int replicationPort = args.length == 2 && args[0].equals("--serve-replicas") ? Integer.parseInt(args[1]) : 0;
+        // a commit that cannot be saved is undone and throws; tell the operator, not just the console
+        Thread.setDefaultUncaughtExceptionHandler((t, e) -> {
+            e.printStackTrace();
+            if (e instanceof UncheckedIOException && !GraphicsEnvironment.isHeadless())
+                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null, e.getMessage(), "BiteWave", JOptionPane.ERROR_MESSAGE));
+        });
+        SwingUtilities.invokeLater(() -> {
+            try {
+                store.load();
+            } catch (UncheckedIOException e) {
+                System.err.println(e.getMessage());
+                if (!GraphicsEnvironment.isHeadless()) JOptionPane.showMessageDialog(null, e.getMessage(), "BiteWave", JOptionPane.ERROR_MESSAGE);
+                System.exit(1);
+            }
+            startServices();
+            if (replicationPort > 0) startPrimary(replicationPort);
+            showLogin();
+        });
+    }
+
+    // what a terminal that accepts orders runs alongside the GUI: at startup, and on a standby once promoted
+    static void startServices() {
+        AuditLog.start(store);
+        liveStats = new LiveStats(store, Long.getLong("bitewave.stats.periodMs", 1000));
+    }
+
+    static void logout(JFrame dashboard) {
+        dashboard.dispose();
+        AuditLog.setActor(AuditLog.SYSTEM);
+        new LoginFrame();
+    }
+
+    static void showLogin() {
+        try { UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName()); } catch (Exception ignored) {}
+        new LoginFrame();
+    }
+
+    static Replication.Primary startPrimary(int port) {
+        try {
+            Replication.Primary p = new Replication.Primary(store, Replication.bindAddress(), port, Replication.token());
+            System.out.println("Serving replicas on " + p.server.getInetAddress().getHostAddress() + ":" + p.port());
+            return p;
+        } catch (IOException e) {
+            System.err.println("Cannot serve replicas on port " + port + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    // daily rollups of closed business days, answered without reading any order partitions
+    static void printHistory(int fromDay, int toDay) {
+        System.out.printf("%-10s %8s %8s %14s  %s%n", "Day", "Orders", "Billed", "Revenue", "Detail");
+        for (DayRollup r : store.history.rollups.subMap(fromDay, true, toDay, true).values()) {
+            System.out.printf("%-10d %8d %8d %14.2f  %s%n", r.day, r.orderCount, r.billedCount, r.revenue, r.detailRetained ? "kept" : "purged");
+        }
+        DayRollup total = store.history.summary(fromDay, toDay);
+        System.out.printf("%-10s %8d %8d %14.2f%n", "Total", total.orderCount, total.billedCount, total.revenue);
+        List<Map.Entry<Integer, Integer>> top = new ArrayList<>(total.itemQty.entrySet());
+        top.sort((a, b) -> b.getValue() - a.getValue());
+        for (int i = 0; i < top.size() && i < 5; i++) {
+            Item it = store.items.get(top.get(i).getKey());
+            String name = (it==null) ? ("Item#" + top.get(i).getKey()) : it.itemName;
+            System.out.printf("  %-24s %8d sold%n", name, top.get(i).getValue());
+        }
+    }
+
+    // standby terminal: follow a primary until promoted from the console
+    static void runReplica(String host, int port, int servePort) throws IOException {
+        store.load();
+        if (Replication.token().isEmpty()) throw new IOException("set -D" + Replication.TOKEN_PROPERTY + " to the primary's token");
+        Replication.Replica replica = new Replication.Replica(store, host, port, Replication.token());
+        System.out.println("Replicating from " + host + ":" + port + ". Commands: status, promote");
+        BufferedReader console = new BufferedReader(new InputStreamReader(System.in));
+        String line;
+        while ((line = console.readLine()) != null) {
+            line = line.trim();
+            if (line.equals("status")) {
+                System.out.println((replica.isConnected() ? "connected" : "disconnected") + ", applied change " + replica.appliedSeq());
+            } else if (line.equals("promote")) {
+                replica.promote();
+                System.out.println("Promoted at change " + store.seq + "; this terminal now accepts orders.");
+                startServices();
+                if (servePort > 0) startPrimary(servePort);
+                if (!GraphicsEnvironment.isHeadless()) SwingUtilities.invokeLater(RestaurantApp::showLogin);
+                return;
+            } else if (!line.isEmpty()) {
+                System.out.println("Commands: status, promote");
+            }
+        }
+    }
+
+    // key=value arguments of simulate, selftest and the benchmarks
+    static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (String a : args) {
+            int eq = a.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Expected key=value, got " + a);
+            opts.put(a.substring(0, eq), a.substring(eq + 1));
+        }
+        return opts;
+    }
+
+    // headless commands, e.g. "export orders orders.csv" or "import items menu.jsonl"
+    static void runCommand(String[] args) {
+        if ((args.length == 3 || args.length == 4) && args[0].equals("replica")) {
+            try {
+                runReplica(args[1], Integer.parseInt(args[2]), args.length == 4 ? Integer.parseInt(args[3]) : 0);
+                return;
+            } catch (Exception e) {
+                System.err.println("replica failed: " + e.getMessage());
+                System.exit(1);
+            }
+        }
+        if (args.length == 3 && (args[0].equals("import") || args[0].equals("export"))) {
+            store.load();
+            boolean importing = args[0].equals("import");
+            try {
+                long n = DataTransfer.run(importing, args[1], new File(args[2]),
+                        (done, pct) -> System.out.printf("\r%s %s: %d records (%d%%)", args[0], args[1], done, pct));
+                System.out.println();
+                System.out.println((importing ? "Imported " : "Exported ") + n + " " + args[1] + (importing ? " from " : " to ") + args[2]);
+                System.exit(0);
+            } catch (Exception e) {
+                System.out.println();
+                System.err.println(args[0] + " failed: " + e.getMessage());
+                System.exit(1);
+            }
+        }
+        if (args[0].equals("simulate")) {
+            try {
+                Simulator.run(Arrays.copyOfRange(args, 1, args.length));
+                System.exit(0);
+            } catch (Exception e) {
+                System.err.println("simulate failed: " + e.getMessage());
+                System.exit(1);
+            }
+        }
+        if (args[0].equals("selftest")) {
+            try {
+                Simulator.selftest(Arrays.copyOfRange(args, 1, args.length));
+                System.exit(0);
+            } catch (Exception e) {
+                System.err.println("selftest failed: " + e.getMessage());
+                System.exit(1);
+            }
+        }
+        if (args[0].equals("pricing-bench")) {
+            try {
+                PricingBenchmark.run(Arrays.copyOfRange(args, 1, args.length));
+                System.exit(0);
+            } catch (Exception e) {
+                System.err.println("pricing-bench failed: " + e.getMessage());
+                System.exit(1);
+            }
+        }
+        if (args[0].equals("storage-bench")) {
+            try {
+                StorageBenchmark.run(Arrays.copyOfRange(args, 1, args.length));
+                System.exit(0);
+            } catch (Exception e) {
+                System.err.println("storage-bench failed: " + e.getMessage());
+                System.exit(1);
+            }
+        }
+        if (args.length >= 1 && args.length <= 3 && args[0].equals("history")) {
+            store.load();
+            int from = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+            int to = args.length > 2 ? Integer.parseInt(args[2]) : 99999999;
+            printHistory(from, to);
+            System.exit(0);
+        }
+        System.err.println("Usage: RestaurantApp [import|export] [items|orders|bills] <file.csv|file.jsonl>");
+        System.err.println("       RestaurantApp history [fromDay] [toDay]   (days as yyyyMMdd)");
+        System.err.println("       RestaurantApp simulate [key=value ...]    (see Simulator for keys)");
+        System.err.println("       RestaurantApp selftest [key=value ...]    (writers against read views; exits 1 on failure)");
+        System.err.println("       RestaurantApp storage-bench [key=value ...] (rows, orders, items, url)");
+        System.err.println("       RestaurantApp pricing-bench [key=value ...] (rules, items, orders, lines, seconds)");
+        System.err.println("       RestaurantApp replica <primaryHost> <primaryPort> [servePortAfterPromotion]");
+        System.err.println("       RestaurantApp --serve-replicas <port>");
+        System.exit(2);
+    }
+
+    // ---------- GUI: LoginFrame ----------
+    static class LoginFrame extends JFrame {
+        JTextField tfUser;
+        JPasswordField pf;
+        public LoginFrame() {
+            super("BiteWave - Login");
+            setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            setSize(420,260);
+            setLocationRelativeTo(null);
+
+            JPanel p = new JPanel(new BorderLayout(12,12));
+            p.setBorder(BorderFactory.createEmptyBorder(12,12,12,12));
+            p.setBackground(Color.WHITE);
+
+            JLabel title = new JLabel("BiteWave", JLabel.CENTER);
+            title.setFont(new Font("Segoe UI", Font.BOLD, 28));
+            title.setForeground(new Color(45, 85, 155));
+            p.add(title, BorderLayout.NORTH);
+
+            JPanel form = new JPanel(new GridLayout(3,2,8,8));
+            form.setBackground(Color.WHITE);
+            form.add(new JLabel("Username:"));
+            tfUser = new JTextField();
+            form.add(tfUser);
+            form.add(new JLabel("Password:"));
+            pf = new JPasswordField();
+            form.add(pf);
+            form.add(new JLabel(""));
+            JButton btnLogin = new JButton("Login");
+            form.add(btnLogin);
+            p.add(form, BorderLayout.CENTER);
+
+            JTextArea info = new JTextArea("Default admin: admin / admin123\nCreate employees from Admin dashboard.");
+            info.setEditable(false); info.setBackground(Color.WHITE); info.setFocusable(false);
+            p.add(info, BorderLayout.SOUTH);
+
+            setContentPane(p);
+            setVisible(true);
+
+            btnLogin.addActionListener(e -> login());
+            getRootPane().setDefaultButton(btnLogin);
+        }
+
+        private void login() {
+            String user = tfUser.getText().trim();
+            String pass = new String(pf.getPassword()).trim();
+            if (user.isEmpty() || pass.isEmpty()) { JOptionPane.showMessageDialog(this, "Enter credentials."); return; }
+            User u = store.users.get(user);
+            if (u == null || !u.checkPassword(pass)) { JOptionPane.showMessageDialog(this, "Invalid username or password."); return; }
+            dispose();
+            AuditLog.setActor(u.getUsername());
+            if (u instanceof Admin) {
+                new AdminDashboard((Admin)u);
+            } else if (u instanceof Employee) {
+                new EmployeeDashboard((Employee)u);
+            } else {
+                JOptionPane.showMessageDialog(null, "Unknown user role.");
+            }
+        }
+    }
+
+    // ---------- AdminDashboard: modern cards + CardLayout subpages ----------
+    static class AdminDashboard extends JFrame {
+        Admin admin;
+        private JPanel centerCardsArea; // CardLayout area
+        private CardLayout centerCardLayout;
+        private final String HOME_CARD = "HOME_CARD";
+        private final String EMP_PANEL = "EMP_PANEL";
+        private final String ITEM_PANEL = "ITEM_PANEL";
+        private final String ORDER_PANEL = "ORDER_PANEL";
+        private final String BILLS_PANEL = "BILLS_PANEL";
+        private final String AUDIT_PANEL = "AUDIT_PANEL";
+        private final Map<String, JLabel> statValues = new HashMap<>(); // stat box title -> value label
+        private final Consumer<LiveStats.Sample> statsSubscriber = this::showStats;
+
+        public AdminDashboard(Admin admin) {
+            super("Admin Dashboard - " + admin.getName());
+            this.admin = admin;
+            setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            setSize(1100,720);
+            setLocationRelativeTo(null);
+
+            // Root layout: top bar + center area + footer
+            JPanel root = new JPanel(new BorderLayout(12,12));
+            root.setBorder(BorderFactory.createEmptyBorder(12,12,12,12));
+            root.setBackground(Color.WHITE);
+
+            // Top bar with welcome and logout/back controls
+            JPanel topBar = new JPanel(new BorderLayout());
+            topBar.setBackground(Color.WHITE);
+
+            JLabel lblWelcome = new JLabel("Welcome, " + admin.getName());
+            lblWelcome.setFont(new Font("Segoe UI", Font.BOLD, 26));
+            lblWelcome.setForeground(new Color(35, 80, 160));
+            topBar.add(lblWelcome, BorderLayout.WEST);
+
+            JPanel rightTop = new JPanel(new FlowLayout(FlowLayout.RIGHT, 8, 6));
+            rightTop.setBackground(Color.WHITE);
+            JButton btnBack = new JButton("Back to Dashboard");
+            btnBack.setVisible(false); // only visible when in a subpage
+            JButton btnLogout = new JButton("Logout");
+            rightTop.add(btnBack);
+            rightTop.add(btnLogout);
+            topBar.add(rightTop, BorderLayout.EAST);
+
+            root.add(topBar, BorderLayout.NORTH);
+
+            // Center area uses CardLayout: HOME (dashboard cards) and panels
+            centerCardLayout = new CardLayout();
+            centerCardsArea = new JPanel(centerCardLayout);
+            centerCardsArea.setBackground(Color.WHITE);
+
+            // HOME card (grid of 4 colored cards)
+            centerCardsArea.add(createHomePanel(), HOME_CARD);
+
+            // Management panels (reuse static creators)
+            centerCardsArea.add(wrapWithHeader(createEmployeesPanel(), "Employees Management"), EMP_PANEL);
+            centerCardsArea.add(wrapWithHeader(createItemsPanel(true), "Items Management"), ITEM_PANEL);
+            centerCardsArea.add(wrapWithHeader(createOrdersPanel(true), "Orders Management"), ORDER_PANEL);
+            centerCardsArea.add(wrapWithHeader(createBillsPanel(), "Bills"), BILLS_PANEL);
+            centerCardsArea.add(wrapWithHeader(createAuditPanel(), "Audit Log"), AUDIT_PANEL);
+
+            root.add(centerCardsArea, BorderLayout.CENTER);
+
+            // Footer (small)
+            JPanel footer = new JPanel(new FlowLayout(FlowLayout.LEFT));
+            footer.setBackground(Color.WHITE);
+            footer.add(new JLabel("BiteWave — Admin Control Panel"));
+            root.add(footer, BorderLayout.SOUTH);
+
+            // actions
+            btnLogout.addActionListener(e -> logout(this));
+
+            btnBack.addActionListener(e -> {
+                centerCardLayout.show(centerCardsArea, HOME_CARD);
+                btnBack.setVisible(false);
+                setTitle("Admin Dashboard - " + admin.getName());
+            });
+
+            // when switching cards, show/hide back button appropriately
+            // also allow panels to request switching (we will handle in card click code)
+            // We'll detect when a non-home card is visible by capturing requests on card switches.
+            // However CardLayout doesn't give an event, so we handle via actions that switch cards:
+            // We'll expose a helper to switch cards and update back button visibility.
+
+            // Expose helper via local method (lambda-like)
+            Runnable showHome = () -> {
+                centerCardLayout.show(centerCardsArea, HOME_CARD);
+                btnBack.setVisible(false);
+                setTitle("Admin Dashboard - " + admin.getName());
+            };
+
+            // card click handlers will call showPanel(name)
+            // We will implement simple methods via anonymous inner class fields:
+            // To allow sub-panels to call it (not needed now), but we'll only switch from this class.
+
+            if (liveStats != null) {
+                liveStats.subscribe(statsSubscriber);
+                showStats(liveStats.sample());
+            }
+
+            setContentPane(root);
+            setVisible(true);
+        }
+
+        @Override public void dispose() {
+            if (liveStats != null) liveStats.unsubscribe(statsSubscriber);
+            super.dispose();
+        }
+
+        // create the home dashboard with 4 colored cards
+        private JPanel createHomePanel() {
+            JPanel p = new JPanel(new BorderLayout(12,12));
+            p.setBackground(Color.WHITE);
+
+            JLabel hdr = new JLabel("Admin Control Center");
+            hdr.setFont(new Font("Segoe UI", Font.BOLD, 22));
+            hdr.setForeground(new Color(25, 65, 140));
+            p.add(hdr, BorderLayout.NORTH);
+
+            JPanel grid = new JPanel(new GridLayout(1,5,18,18));
+            grid.setBackground(Color.WHITE);
+            grid.setBorder(BorderFactory.createEmptyBorder(20,20,20,20));
+
+            // Card factory
+            JPanel cardEmp = makeCard("Add Employee", "Create and manage employees", new Color(52, 152, 219));
+            JPanel cardItem = makeCard("Add Item", "Create and manage menu items", new Color(46, 204, 113));
+            JPanel cardOrder = makeCard("Add Order", "Create new orders", new Color(243, 156, 18));
+            JPanel cardBills = makeCard("View Bills", "See generated bills", new Color(155, 89, 182));
+            JPanel cardAudit = makeCard("Audit Log", "Who changed what", new Color(127, 140, 141));
+
+            grid.add(cardEmp); grid.add(cardItem); grid.add(cardOrder); grid.add(cardBills); grid.add(cardAudit);
+
+            p.add(grid, BorderLayout.CENTER);
+
+            // quick stats area under cards: today's service on top, totals below, kept live by LiveStats
+            JPanel stats = new JPanel(new GridLayout(2,4,12,12));
+            stats.setBackground(Color.WHITE);
+            stats.setBorder(BorderFactory.createEmptyBorder(8,8,8,8));
+            stats.add(createStatBox("Revenue Today", "-"));
+            stats.add(createStatBox("Open Orders", "-"));
+            stats.add(createStatBox("Average Ticket", "-"));
+            stats.add(createStatBox("Orders / Hour", "-"));
+            stats.add(createStatBox("Employees", String.valueOf(countEmployees())));
+            stats.add(createStatBox("Items", String.valueOf(store.items.size())));
+            stats.add(createStatBox("Orders", String.valueOf(store.orders.size() + store.history.orderCount())));
+            stats.add(createStatBox("Bills", String.valueOf(store.bills.size())));
+            p.add(stats, BorderLayout.SOUTH);
+
+            // card clicks: switch centerCardLayout to respective panels and show back button
+            cardEmp.addMouseListener(new MouseAdapter() {
+                public void mouseClicked(MouseEvent e) { showPanel(EMP_PANEL); }
+            });
+            cardItem.addMouseListener(new MouseAdapter() {
+                public void mouseClicked(MouseEvent e) { showPanel(ITEM_PANEL); }
+            });
+            cardOrder.addMouseListener(new MouseAdapter() {
+                public void mouseClicked(MouseEvent e) { showPanel(ORDER_PANEL); }
+            });
+            cardBills.addMouseListener(new MouseAdapter() {
+                public void mouseClicked(MouseEvent e) { showPanel(BILLS_PANEL); }
+            });
+            cardAudit.addMouseListener(new MouseAdapter() {
+                public void mouseClicked(MouseEvent e) { showPanel(AUDIT_PANEL); }
+            });
+
+            return p;
+        }
+
+        // utility to change visible card and update title/back button
+        private void showPanel(String cardName) {
+            centerCardLayout.show(centerCardsArea, cardName);
+            // find swal components (top right back button)
+            // We can locate the button by traversing the frame content
+            Component[] comps = getContentPane().getComponents();
+            // top component (BorderLayout.NORTH) is top bar (a JPanel)
+            if (comps.length > 0 && comps[0] instanceof JPanel) {
+                JPanel topBar = (JPanel) comps[0];
+                for (Component c : topBar.getComponents()) {
+                    if (c instanceof JPanel) {
+                        JPanel right = (JPanel) c;
+                        for (Component inner : right.getComponents()) {
+                            if (inner instanceof JButton) {
+                                JButton btn = (JButton) inner;
+                                if ("Back to Dashboard".equals(btn.getText())) {
+                                    btn.setVisible(true);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+            // update title
+            String t = "Admin Dashboard - " + admin.getName();
+            if (EMP_PANEL.equals(cardName)) t = "Employees - " + admin.getName();
+            if (ITEM_PANEL.equals(cardName)) t = "Items - " + admin.getName();
+            if (ORDER_PANEL.equals(cardName)) t = "Orders - " + admin.getName();
+            if (BILLS_PANEL.equals(cardName)) t = "Bills - " + admin.getName();
+            if (AUDIT_PANEL.equals(cardName)) t = "Audit Log - " + admin.getName();
+            setTitle(t);
+        }
+
+        // helper to make a colored card (panel) with hover & cursor change
+        private JPanel makeCard(String title, String subtitle, Color bg) {
+            JPanel card = new JPanel(new BorderLayout());
+            card.setBackground(bg);
+            card.setBorder(BorderFactory.createEmptyBorder(16,16,16,16));
+            card.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+
+            JLabel lbl = new JLabel("<html><div style='text-align:center'><span style='font-size:18pt;color:white;font-weight:bold;'>" + title +
+                    "</span><br><span style='font-size:10pt;color:white;'>" + subtitle + "</span></div></html>", SwingConstants.CENTER);
+            lbl.setHorizontalAlignment(SwingConstants.CENTER);
+            card.add(lbl, BorderLayout.CENTER);
+
+            // hover effect
+            card.addMouseListener(new MouseAdapter() {
+                public void mouseEntered(MouseEvent e) { card.setBackground(brighten(bg, 0.05f)); }
+                public void mouseExited(MouseEvent e) { card.setBackground(bg); }
+            });
+            return card;
+        }
+
+        // small stat box under cards
+        private JPanel createStatBox(String title, String value) {
+            JPanel p = new JPanel(new BorderLayout());
+            p.setBackground(new Color(245,245,245));
+            p.setBorder(BorderFactory.createEmptyBorder(8,8,8,8));
+            JLabel v = new JLabel(value, SwingConstants.CENTER);
+            v.setFont(new Font("Segoe UI", Font.BOLD, 18));
+            JLabel t = new JLabel(title, SwingConstants.CENTER);
+            t.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+            p.add(v, BorderLayout.CENTER);
+            p.add(t, BorderLayout.SOUTH);
+            statValues.put(title, v);
+            return p;
+        }
+
+        // runs on the EDT at most once per sampling period
+        private void showStats(LiveStats.Sample s) {
+            setStat("Revenue Today", String.format("Rs %.2f", s.revenueToday));
+            setStat("Open Orders", String.valueOf(s.openOrders));
+            setStat("Average Ticket", String.format("Rs %.2f", s.averageTicket()));
+            setStat("Orders / Hour", String.valueOf(s.ordersLastHour));
+            setStat("Employees", String.valueOf(s.employees));
+            setStat("Items", String.valueOf(s.items));
+            setStat("Orders", String.valueOf(s.orders));
+            setStat("Bills", String.valueOf(s.bills));
+        }
+
+        private void setStat(String title, String value) {
+            JLabel l = statValues.get(title);
+            if (l != null && !value.equals(l.getText())) l.setText(value);
+        }
+
+        // brighten color helper
+        private Color brighten(Color c, float factor) {
+            int r = Math.min(255, (int)(c.getRed() * (1 + factor)));
+            int g = Math.min(255, (int)(c.getGreen() * (1 + factor)));
+            int b = Math.min(255, (int)(c.getBlue() * (1 + factor)));
+            return new Color(r,g,b);
+        }
+
+        // wrap provided panel with top bar (Back and Logout already handled in main top bar)
+        private JPanel wrapWithHeader(JPanel body, String title) {
+            JPanel wrapper = new JPanel(new BorderLayout());
+            wrapper.setBackground(Color.WHITE);
+            JLabel h = new JLabel(title);
+            h.setFont(new Font("Segoe UI", Font.BOLD, 20));
+            h.setBorder(BorderFactory.createEmptyBorder(10,10,10,10));
+            wrapper.add(h, BorderLayout.NORTH);
+            wrapper.add(body, BorderLayout.CENTER);
+            return wrapper;
+        }
+
+        // Employees panel (copied/adapted)
+        private JPanel createEmployeesPanel() {
+            JPanel panel = new JPanel(new BorderLayout(6,6));
+            panel.setBackground(Color.WHITE);
+            DefaultTableModel model = new DefaultTableModel(new Object[]{"UserID","Username","Name","Role"},0) {
+                public boolean isCellEditable(int r,int c){ return false; }
+            };
+            JTable table = new JTable(model);
+            refreshEmployeesTable(model);
+            panel.add(new JScrollPane(table), BorderLayout.CENTER);
+
+            JPanel south = new JPanel();
+            south.setBackground(Color.WHITE);
+            JButton btnAdd = new JButton("Add Employee");
+            JButton btnEdit = new JButton("Edit Selected");
+            JButton btnDelete = new JButton("Delete Selected");
+            south.add(btnAdd); south.add(btnEdit); south.add(btnDelete);
+            panel.add(south, BorderLayout.SOUTH);
+
+            btnAdd.addActionListener(e -> {
+                JTextField tfUser = new JTextField();
+                JTextField tfName = new JTextField();
+                JPasswordField pf = new JPasswordField();
+                Object[] fields = {"Username:", tfUser, "Name:", tfName, "Password:", pf};
+                int res = JOptionPane.showConfirmDialog(panel, fields, "Add Employee", JOptionPane.OK_CANCEL_OPTION);
+                if (res==JOptionPane.OK_OPTION) {
+                    String u = tfUser.getText().trim();
+                    String name = tfName.getText().trim();
+                    String pass = new String(pf.getPassword()).trim();
+                    if (u.isEmpty()||name.isEmpty()||pass.isEmpty()) { JOptionPane.showMessageDialog(panel, "All fields required."); return; }
+                    if (store.users.containsKey(u)) { JOptionPane.showMessageDialog(panel, "Username exists."); return; }
+                    Employee emp = new Employee(store.allocateUserId(), u, pass, name);
+                    store.putUser(emp);
+                    refreshEmployeesTable(model);
+                    // update stats on home
+                }
+            });
+
+            btnEdit.addActionListener(e -> {
+                int sel = table.getSelectedRow();
+                if (sel < 0) { JOptionPane.showMessageDialog(panel, "Select a user."); return; }
+                String username = (String) model.getValueAt(sel,1);
+                User u = store.users.get(username);
+                if (u == null) return;
+                JTextField tfName = new JTextField(u.getName());
+                JPasswordField pf = new JPasswordField(u.getPassword());
+                Object[] fields = {"Name:", tfName, "Password:", pf};
+                int res = JOptionPane.showConfirmDialog(panel, fields, "Edit User", JOptionPane.OK_CANCEL_OPTION);
+                if (res == JOptionPane.OK_OPTION) {
+                    // stored records are replaced, never changed in place, so the audit log keeps the old value
+                    String name = tfName.getText().trim();
+                    String pass = new String(pf.getPassword()).trim();
+                    User edited = (u instanceof Admin) ? new Admin(u.userID, u.username, pass, name) : new Employee(u.userID, u.username, pass, name);
+                    if (pass.isEmpty()) { edited.password = u.password; edited.passwordHash = u.passwordHash; } // left blank: unchanged
+                    store.putUser(edited); refreshEmployeesTable(model);
+                }
+            });
+
+            btnDelete.addActionListener(e -> {
+                int sel = table.getSelectedRow();
+                if (sel < 0) { JOptionPane.showMessageDialog(panel, "Select a user."); return; }
+                String username = (String) model.getValueAt(sel,1);
+                if (username.equals("admin")) { JOptionPane.showMessageDialog(panel, "Cannot delete admin."); return; }
+                int ok = JOptionPane.showConfirmDialog(panel, "Delete user " + username + "?", "Confirm", JOptionPane.YES_NO_OPTION);
+                if (ok == JOptionPane.YES_OPTION) {
+                    store.removeUser(username); refreshEmployeesTable(model);
+                }
+            });
+
+            return panel;
+        }
+
+        private void refreshEmployeesTable(DefaultTableModel model) {
+            model.setRowCount(0);
+            for (User u : store.usersByName.values()) model.addRow(new Object[]{u.userID, u.username, u.name, u.getRole()});
+        }
+
+        // Items panel: call static method (adapted) to reuse logic
+        private JPanel createItemsPanel(boolean isAdminView) {
+            return RestaurantApp.createItemsPanel(isAdminView);
+        }
+
+        private JPanel createOrdersPanel(boolean isAdminView) {
+            return RestaurantApp.createOrdersPanel(isAdminView);
+        }
+
+        private JPanel createBillsPanel() {
+            return RestaurantApp.createBillsPanel();
+        }
+
+        // audit viewer: newest events first, filtered by a search term
+        private JPanel createAuditPanel() {
+            JPanel panel = new JPanel(new BorderLayout(6,6));
+            panel.setBackground(Color.WHITE);
+            DefaultTableModel model = new DefaultTableModel(new Object[]{"Time","Actor","Action","Entity","Key","Before","After"},0) {
+                public boolean isCellEditable(int r,int c){ return false; }
+            };
+            JTable table = new JTable(model);
+            panel.add(new JScrollPane(table), BorderLayout.CENTER);
+
+            JPanel north = new JPanel(new FlowLayout(FlowLayout.LEFT));
+            north.setBackground(Color.WHITE);
+            JTextField tfSearch = new JTextField(30);
+            JButton btnSearch = new JButton("Search");
+            JLabel lblCount = new JLabel(" ");
+            north.add(new JLabel("Find (actor, action, entity, value):"));
+            north.add(tfSearch); north.add(btnSearch); north.add(lblCount);
+            panel.add(north, BorderLayout.NORTH);
+
+            final int limit = 1000;
+            ActionListener search = e -> {
+                btnSearch.setEnabled(false);
+                String q = tfSearch.getText();
+                new SwingWorker<List<AuditLog.Event>, Void>() {
+                    protected List<AuditLog.Event> doInBackground() { return AuditLog.search(new File(store.dir, "audit"), q, limit); }
+                    protected void done() {
+                        btnSearch.setEnabled(true);
+                        model.setRowCount(0);
+                        try {
+                            List<AuditLog.Event> events = get();
+                            SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+                            for (AuditLog.Event ev : events) model.addRow(new Object[]{sdf.format(new Date(ev.time)), ev.actor, ev.action, ev.entity, ev.key, ev.before, ev.after});
+                            lblCount.setText(events.size() + (events.size() == limit ? "+ events (newest shown)" : " events"));
+                        } catch (Exception ex) { lblCount.setText("Search failed: " + ex.getMessage()); }
+                    }
+                }.execute();
+            };
+            btnSearch.addActionListener(search);
+            tfSearch.addActionListener(search);
+            return panel;
+        }
+
+        private int countEmployees() {
+            int c = 0;
+            for (User u : store.users.values()) if (u instanceof Employee) c++;
+            return c;
+        }
+    }
+
+    static class EmployeeDashboard extends JFrame {
+        Employee emp;
+        JTabbedPane tabs;
+        public EmployeeDashboard(Employee emp) {
+            super("Employee Dashboard - " + emp.getName());
+            this.emp = emp;
+            setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            setSize(900,600);
+            setLocationRelativeTo(null);
+            tabs = new JTabbedPane();
+            tabs.addTab("Items", createItemsPanel(false));
+            tabs.addTab("Orders", createOrdersPanel(false));
+            tabs.addTab("Logout", new JPanel());
+            tabs.addChangeListener(e -> { if (tabs.getSelectedIndex() == 2) logout(this); });
+
+            setContentPane(tabs);
+            setVisible(true);
+        }
+    }
+
+    // ------------------ Items / Orders / Bills logic reused ------------------
+    static JPanel createItemsPanel(boolean isAdminView) {
+        JPanel panel = new JPanel(new BorderLayout(6,6));
+        DefaultTableModel model = new DefaultTableModel(new Object[]{"ItemID","Name","Price","Qty","Description"},0) {
+            public boolean isCellEditable(int r,int c){ return false; }
+        };
+        JTable table = new JTable(model);
+        refreshItems(model);
+        panel.add(new JScrollPane(table), BorderLayout.CENTER);
+
+        JPanel south = new JPanel();
+        JButton btnAdd = new JButton("Add Item");
+        JButton btnEdit = new JButton("Edit Selected");
+        JButton btnDelete = new JButton("Delete Selected");
+        south.add(btnAdd); south.add(btnEdit); south.add(btnDelete);
+        if (isAdminView) {
+            JButton btnImport = new JButton("Import...");
+            JButton btnExport = new JButton("Export...");
+            south.add(btnImport); south.add(btnExport);
+            btnImport.addActionListener(e -> transferDialog(panel, true, "items", () -> refreshItems(model)));
+            btnExport.addActionListener(e -> transferDialog(panel, false, "items", null));
+        }
+        panel.add(south, BorderLayout.SOUTH);
+
+        btnAdd.addActionListener(e -> {
+            JTextField tfName = new JTextField();
+            JTextField tfPrice = new JTextField();
+            JTextField tfQty = new JTextField("0");
+            JTextField tfDesc = new JTextField();
+            Object[] fields = {"Name:", tfName, "Price:", tfPrice, "Quantity:", tfQty, "Description:", tfDesc};
+            int res = JOptionPane.showConfirmDialog(panel, fields, "Add Item", JOptionPane.OK_CANCEL_OPTION);
+            if (res == JOptionPane.OK_OPTION) {
+                try {
+                    String name = tfName.getText().trim();
+                    double price = Double.parseDouble(tfPrice.getText().trim());
+                    int qty = Integer.parseInt(tfQty.getText().trim());
+                    String desc = tfDesc.getText().trim();
+                    if (name.isEmpty()) { JOptionPane.showMessageDialog(panel, "Name required."); return; }
+                    Item it = new Item(store.allocateItemId(), name, price, qty, desc);
+                    store.putItem(it); refreshItems(model);
+                } catch (NumberFormatException ex) { JOptionPane.showMessageDialog(panel, "Invalid price/qty."); }
+            }
+        });
+
+        btnEdit.addActionListener(e -> {
+            int sel = table.getSelectedRow();
+            if (sel < 0) { JOptionPane.showMessageDialog(panel, "Select an item."); return; }
+            int id = (int) model.getValueAt(sel,0);
+            Item it = store.items.get(id);
+            if (it == null) return;
+            JTextField tfName = new JTextField(it.itemName);
+            JTextField tfPrice = new JTextField(String.valueOf(it.price));
+            JTextField tfQty = new JTextField(String.valueOf(it.quantity));
+            JTextField tfDesc = new JTextField(it.description);
+            Object[] fields = {"Name:", tfName, "Price:", tfPrice, "Quantity:", tfQty, "Description:", tfDesc};
+            int res = JOptionPane.showConfirmDialog(panel, fields, "Edit Item", JOptionPane.OK_CANCEL_OPTION);
+            if (res == JOptionPane.OK_OPTION) {
+                try {
+                    Item edited = new Item(it.itemID, tfName.getText().trim(), Double.parseDouble(tfPrice.getText().trim()),
+                            Integer.parseInt(tfQty.getText().trim()), tfDesc.getText().trim());
+                    store.putItem(edited); refreshItems(model);
+                } catch (NumberFormatException ex) { JOptionPane.showMessageDialog(panel, "Invalid price/qty."); }
+            }
+        });
+
+        btnDelete.addActionListener(e -> {
+            int sel = table.getSelectedRow();
+            if (sel < 0) { JOptionPane.showMessageDialog(panel, "Select an item."); return; }
+            int id = (int) model.getValueAt(sel,0);
+            int ok = JOptionPane.showConfirmDialog(panel, "Delete item " + id + "?", "Confirm", JOptionPane.YES_NO_OPTION);
+            if (ok == JOptionPane.YES_OPTION) {
+                store.removeItem(id); refreshItems(model);
+            }
+        });
+
+        return panel;
+    }
+
+    static void refreshItems(DefaultTableModel model) {
+        model.setRowCount(0);
+        for (Item it : store.itemsById.values()) {
+            model.addRow(new Object[]{it.itemID, it.itemName, it.price, it.quantity, it.description});
+        }
+    }
 
     static JPanel createOrdersPanel(boolean isAdminView) {
         JPanel panel = new JPanel(new BorderLayout(6,6));
@@ -643,239 +1808,2181 @@ class RestaurantApp {
             public boolean isCellEditable(int r,int c){ return false; }
         };
         JTable table = new JTable(model);
-        refreshOrders(model);
+        OrdersPager pager = new OrdersPager(model);
+        pager.refresh();
         panel.add(new JScrollPane(table), BorderLayout.CENTER);
 
-        JPanel south = new JPanel();
-        JButton btnCreate = new JButton("Create Order");
-        JButton btnView = new JButton("View / Edit");
-        JButton btnDelete = new JButton("Delete");
-        JButton btnBill = new JButton("Generate Bill");
-        south.add(btnCreate); south.add(btnView); south.add(btnDelete); south.add(btnBill);
-        panel.add(south, BorderLayout.SOUTH);
+        JPanel south = new JPanel();
+        south.add(pager.btnMore);
+        JButton btnCreate = new JButton("Create Order");
+        JButton btnView = new JButton("View / Edit");
+        JButton btnDelete = new JButton("Delete");
+        JButton btnBill = new JButton("Generate Bill");
+        south.add(btnCreate); south.add(btnView); south.add(btnDelete); south.add(btnBill);
+        if (isAdminView) {
+            JButton btnImport = new JButton("Import...");
+            JButton btnExport = new JButton("Export...");
+            south.add(btnImport); south.add(btnExport);
+            btnImport.addActionListener(e -> transferDialog(panel, true, "orders", () -> pager.refresh()));
+            btnExport.addActionListener(e -> transferDialog(panel, false, "orders", null));
+        }
+        panel.add(south, BorderLayout.SOUTH);
+
+        btnCreate.addActionListener(e -> {
+            String username = askWhichEmployee();
+            if (username == null) return;
+            Order o = new Order(store.allocateOrderId(), username);
+            boolean saved = editOrderDialog(o);
+            if (saved) {
+                store.putOrder(o); pager.refresh();
+            }
+        });
+
+        btnView.addActionListener(e -> {
+            int sel = table.getSelectedRow();
+            if (sel < 0) { JOptionPane.showMessageDialog(panel, "Select order."); return; }
+            int id = (int) model.getValueAt(sel,0);
+            Order o = store.orders.get(id);
+            if (o == null) return;
+            Order edited = o.copy();
+            boolean saved = editOrderDialog(edited);
+            if (saved) { store.putOrder(edited); pager.refresh(); }
+        });
+
+        btnDelete.addActionListener(e -> {
+            int sel = table.getSelectedRow();
+            if (sel < 0) { JOptionPane.showMessageDialog(panel, "Select order."); return; }
+            int id = (int) model.getValueAt(sel,0);
+            int ok = JOptionPane.showConfirmDialog(panel, "Delete order " + id + "?", "Confirm", JOptionPane.YES_NO_OPTION);
+            if (ok == JOptionPane.YES_OPTION) {
+                store.removeOrder(id); pager.refresh();
+            }
+        });
+
+        btnBill.addActionListener(e -> {
+            int sel = table.getSelectedRow();
+            if (sel < 0) { JOptionPane.showMessageDialog(panel, "Select order."); return; }
+            int id = (int) model.getValueAt(sel,0);
+            Order o = store.orders.get(id);
+            if (o == null) return;
+            if (o.items.isEmpty()) { JOptionPane.showMessageDialog(panel, "Order has no items."); return; }
+            if (o.billed) { JOptionPane.showMessageDialog(panel, "Order already billed."); return; }
+            try {
+                Bill b = billOrder(o);
+                JOptionPane.showMessageDialog(panel, "Bill created: " + b.filename);
+                pager.refresh();
+            } catch (IOException ex) { JOptionPane.showMessageDialog(null, "Failed to write bill: " + ex.getMessage()); }
+        });
+
+        return panel;
+    }
+
+    static final int ORDERS_PAGE = 200;
+
+    // orders table, newest first, read from ordersByDate one page at a time
+    static final class OrdersPager {
+        final DefaultTableModel model;
+        final JButton btnMore = new JButton("Older Orders");
+        private DataStore.IndexKey next;
+
+        OrdersPager(DefaultTableModel model) {
+            this.model = model;
+            btnMore.addActionListener(e -> append(ORDERS_PAGE));
+        }
+
+        // reload from the newest order, keeping as many rows as are shown now
+        void refresh() {
+            int shown = Math.max(ORDERS_PAGE, model.getRowCount());
+            model.setRowCount(0);
+            next = null;
+            append(shown);
+        }
+
+        private void append(int limit) {
+            DataStore.Page<Order> page = store.ordersByDate.page(next, limit, true);
+            SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+            for (Order o : page.rows) {
+                model.addRow(new Object[]{o.orderID, o.placedByUsername, sdf.format(o.orderDate), o.items.size(), o.billed, String.format("Rs %.2f", o.total())});
+            }
+            next = page.next;
+            btnMore.setEnabled(next != null);
+        }
+    }
+
+    static String askWhichEmployee() {
+        List<String> employees = new ArrayList<>();
+        for (User u: store.usersByName.values()) if (u instanceof Employee) employees.add(u.getUsername());
+        if (employees.isEmpty()) {
+            JOptionPane.showMessageDialog(null, "No employees exist. Create from Admin -> Employees.");
+            return null;
+        }
+        String sel = (String) JOptionPane.showInputDialog(null, "Select employee (who places order):", "Place Order", JOptionPane.PLAIN_MESSAGE, null, employees.toArray(), employees.get(0));
+        return sel;
+    }
+
+    static boolean editOrderDialog(Order o) {
+        JDialog dlg = new JDialog((Frame)null, "Edit Order #" + o.orderID, true);
+        dlg.setSize(700,450); dlg.setLocationRelativeTo(null);
+        JPanel main = new JPanel(new BorderLayout(6,6));
+        DefaultTableModel model = new DefaultTableModel(new Object[]{"No","ItemID","Name","Qty","UnitPrice","Subtotal"},0) {
+            public boolean isCellEditable(int r,int c){ return false; }
+        };
+        JTable table = new JTable(model);
+        JLabel totals = new JLabel();
+        refreshOrderItems(model, totals, o);
+        main.add(new JScrollPane(table), BorderLayout.CENTER);
+
+        JPanel controls = new JPanel();
+        JButton btnAdd = new JButton("Add Item");
+        JButton btnQty = new JButton("Update Qty");
+        JButton btnRemove = new JButton("Remove");
+        JButton btnSave = new JButton("Save");
+        JButton btnCancel = new JButton("Cancel");
+        controls.add(btnAdd); controls.add(btnQty); controls.add(btnRemove); controls.add(btnSave); controls.add(btnCancel);
+        JPanel south = new JPanel(new BorderLayout());
+        totals.setBorder(BorderFactory.createEmptyBorder(0,8,0,8));
+        south.add(totals, BorderLayout.NORTH);
+        south.add(controls, BorderLayout.CENTER);
+        main.add(south, BorderLayout.SOUTH);
+
+        btnAdd.addActionListener(e -> {
+            if (store.items.isEmpty()) { JOptionPane.showMessageDialog(dlg, "No items available."); return; }
+            List<String> optionList = new ArrayList<>();
+            for (Item it : store.itemsByName.values()) optionList.add(it.itemID + " - " + it.itemName + " (Rs " + it.price + ")");
+            String[] options = optionList.toArray(new String[0]);
+            String sel = (String) JOptionPane.showInputDialog(dlg, "Select item:", "Add Item", JOptionPane.PLAIN_MESSAGE, null, options, options[0]);
+            if (sel == null) return;
+            int id = Integer.parseInt(sel.split(" - ")[0].trim());
+            Item chosen = store.items.get(id);
+            String qtyS = JOptionPane.showInputDialog(dlg, "Quantity:", "1");
+            if (qtyS == null) return;
+            try {
+                int q = Integer.parseInt(qtyS.trim());
+                if (q <= 0) { JOptionPane.showMessageDialog(dlg, "Invalid qty."); return; }
+                addToOrder(o, chosen, q);
+                refreshOrderItems(model, totals, o);
+            } catch (Exception ex) { JOptionPane.showMessageDialog(dlg, "Invalid qty."); }
+        });
+
+        btnQty.addActionListener(e -> {
+            int sel = table.getSelectedRow();
+            if (sel < 0) { JOptionPane.showMessageDialog(dlg, "Select row."); return; }
+            int idx = sel;
+            OrderItem oi = o.items.get(idx);
+            String s = JOptionPane.showInputDialog(dlg, "New quantity:", oi.qty);
+            if (s == null) return;
+            try {
+                int q = Integer.parseInt(s.trim());
+                if (q <= 0) { JOptionPane.showMessageDialog(dlg, "Invalid qty."); return; }
+                oi.qty = q; refreshOrderItems(model, totals, o);
+            } catch (Exception ex) { JOptionPane.showMessageDialog(dlg, "Invalid number."); }
+        });
+
+        btnRemove.addActionListener(e -> {
+            int sel = table.getSelectedRow();
+            if (sel < 0) { JOptionPane.showMessageDialog(dlg, "Select row."); return; }
+            o.items.remove(sel); refreshOrderItems(model, totals, o);
+        });
+
+        final boolean[] saved = {false};
+        btnSave.addActionListener(e -> { saved[0] = true; dlg.dispose(); });
+        btnCancel.addActionListener(e -> { dlg.dispose(); });
+
+        dlg.setContentPane(main);
+        dlg.setVisible(true);
+        return saved[0];
+    }
+
+    static void refreshOrderItems(DefaultTableModel model, JLabel totals, Order o) {
+        model.setRowCount(0);
+        PriceBreakdown p = store.pricing.quote(o);
+        int i=1;
+        for (OrderItem oi : o.items) {
+            Item it = store.items.get(oi.itemID);
+            String name = (it==null) ? ("Item#" + oi.itemID) : it.itemName;
+            String sub = String.format("Rs %.2f", p.lineNet(i-1));
+            if (p.lineRule[i-1] >= 0) sub += " (" + p.engine.name(p.lineRule[i-1]) + ")";
+            model.addRow(new Object[]{i++, oi.itemID, name, oi.qty, String.format("Rs %.2f", oi.priceSnapshot), sub});
+        }
+        String text = String.format("Items Rs %.2f", p.gross);
+        if (p.discount > 0) text += String.format("   Discounts -Rs %.2f", p.discount);
+        if (p.service > 0) text += String.format("   Service Rs %.2f", p.service);
+        if (p.tax > 0) text += String.format("   Tax Rs %.2f", p.tax);
+        totals.setText(text + String.format("   Total Rs %.2f", p.total));
+    }
+
+    static JPanel createBillsPanel() {
+        JPanel panel = new JPanel(new BorderLayout(6,6));
+        DefaultListModel<String> lm = new DefaultListModel<>();
+        JList<String> list = new JList<>(lm);
+        JTextArea ta = new JTextArea();
+        ta.setEditable(false);
+
+        JPanel left = new JPanel(new BorderLayout());
+        left.add(new JScrollPane(list), BorderLayout.CENTER);
+        JButton btnRefresh = new JButton("Refresh Bills");
+        JButton btnImport = new JButton("Import...");
+        JButton btnExport = new JButton("Export...");
+        JPanel leftButtons = new JPanel(new GridLayout(3,1,4,4));
+        leftButtons.add(btnRefresh); leftButtons.add(btnImport); leftButtons.add(btnExport);
+        left.add(leftButtons, BorderLayout.SOUTH);
+
+        panel.add(left, BorderLayout.WEST);
+        panel.add(new JScrollPane(ta), BorderLayout.CENTER);
+
+        btnRefresh.addActionListener(e -> {
+            lm.clear();
+            File[] files = store.dir.listFiles((dir, name) -> name.startsWith("bill_order_") && name.endsWith(".txt"));
+            if (files != null) {
+                Arrays.sort(files, Comparator.comparing(File::getName));
+                for (File f: files) lm.addElement(f.getName());
+            }
+        });
+
+        btnImport.addActionListener(e -> transferDialog(panel, true, "bills", null));
+        btnExport.addActionListener(e -> transferDialog(panel, false, "bills", null));
+
+        list.addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                String sel = list.getSelectedValue();
+                if (sel == null) return;
+                try (BufferedReader br = new BufferedReader(new FileReader(new File(store.dir, sel)))) {
+                    StringBuilder sb = new StringBuilder();
+                    String line;
+                    while ((line = br.readLine()) != null) sb.append(line).append("\n");
+                    ta.setText(sb.toString());
+                } catch (Exception ex) { ta.setText("Failed to read: " + ex.getMessage()); }
+            }
+        });
+
+        return panel;
+    }
+
+    // pick a .csv/.jsonl file and run the import/export on a worker thread with a progress monitor
+    static void transferDialog(Component parent, boolean importing, String kind, Runnable onDone) {
+        JFileChooser fc = new JFileChooser(new File("."));
+        fc.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter("CSV or JSON lines (*.csv, *.jsonl)", "csv", "jsonl"));
+        if (!importing) fc.setSelectedFile(new File(kind + ".csv"));
+        int res = importing ? fc.showOpenDialog(parent) : fc.showSaveDialog(parent);
+        if (res != JFileChooser.APPROVE_OPTION) return;
+        File f = fc.getSelectedFile();
+        String verb = importing ? "Importing " : "Exporting ";
+        ProgressMonitor pm = new ProgressMonitor(parent, verb + kind, f.getName(), 0, 100);
+        pm.setMillisToDecideToPopup(200);
+        new SwingWorker<Long, long[]>() {
+            protected Long doInBackground() throws Exception {
+                return DataTransfer.run(importing, kind, f, (done, pct) -> publish(new long[]{done, pct}));
+            }
+            protected void process(List<long[]> chunks) {
+                long[] last = chunks.get(chunks.size() - 1);
+                pm.setNote(last[0] + " records");
+                pm.setProgress((int) last[1]);
+            }
+            protected void done() {
+                pm.close();
+                try {
+                    long n = get();
+                    JOptionPane.showMessageDialog(parent, (importing ? "Imported " : "Exported ") + n + " " + kind + ".");
+                } catch (Exception ex) {
+                    Throwable cause = ex.getCause() == null ? ex : ex.getCause();
+                    JOptionPane.showMessageDialog(parent, verb + kind + " failed: " + cause.getMessage());
+                }
+                if (onDone != null) onDone.run();
+            }
+        }.execute();
+    }
+
+    // ------------------ Order operations shared by the panels and the simulator ------------------
+    // adds qty of an item to the order, merging with an existing line for the same item
+    static void addToOrder(Order o, Item item, int qty) {
+        for (OrderItem oi: o.items) { if (oi.itemID == item.itemID) { oi.qty += qty; return; } }
+        o.items.add(new OrderItem(item.itemID, qty, item.price));
+    }
+
+    // writes the bill file, records the bill and marks the order billed in one commit
+    static Bill billOrder(Order o) throws IOException {
+        String fname = writeBillFile(o);
+        Bill b = new Bill(store.allocateBillId(), o.orderID, o.total(), fname);
+        Order billed = o.copy();
+        billed.billed = true;
+        billed.totalLocked = true;
+        billed.lockedTotal = b.amount;
+        store.commit(Arrays.asList(DataStore.Change.put(DataStore.BILLS, b.billID, b),
+                DataStore.Change.put(DataStore.ORDERS, billed.orderID, billed)));
+        return b;
+    }
+
+    static String writeBillFile(Order o) throws IOException {
+        PriceBreakdown p = store.pricing.quote(o);
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyyMMdd_HHmmss");
+        String fname = "bill_order_" + o.orderID + "_" + sdf.format(new Date()) + ".txt";
+        try (PrintWriter pw = new PrintWriter(new FileWriter(new File(store.dir, fname)))) {
+            pw.println("====== RESTAURANT BILL ======");
+            pw.println("Order ID: " + o.orderID);
+            pw.println("Placed by: " + o.placedByUsername);
+            pw.println("Date: " + new Date());
+            pw.println();
+            pw.println(String.format("%-4s %-20s %-6s %-10s", "No", "Name", "Qty", "Subtotal"));
+            int idx=1;
+            for (OrderItem oi : o.items) {
+                Item it = store.items.get(oi.itemID);
+                String name = (it==null) ? ("Item#" + oi.itemID) : it.itemName;
+                pw.printf("%-4d %-20s %-6d Rs %-8.2f\n", idx, name, oi.qty, p.lineGross[idx-1]);
+                idx++;
+            }
+            pw.println("---------------------------------");
+            if (p.appliedCount > 0) {
+                pw.printf("Subtotal: Rs %.2f\n", p.gross);
+                for (int i = 0; i < p.appliedCount; i++) {
+                    int r = p.applied[i];
+                    pw.printf("%-24s %sRs %.2f\n", p.engine.name(r) + ":", p.engine.isCharge(r) ? "" : "-", p.appliedAmount[i]);
+                }
+            }
+            pw.printf("Total: Rs %.2f\n", p.total);
+            pw.println();
+            pw.println("Thank you!");
+            pw.flush();
+            if (pw.checkError()) throw new IOException("write error on " + fname);
+            return fname;
+        }
+    }
+
+    // ------------------ Pricing ------------------
+    // Lines are priced at the snapshot taken when the item was added; the rules in pricing.rules (data
+    // directory, read at startup) adjust that. One rule per line, '#' starts a comment:
+    //   discount Happy hour: percent=20 items=3,4 from=17:00 to=19:00 days=MON-FRI
+    //   discount Bulk fries: off=30 items=7 minQty=3          (Rs off per unit)
+    //   combo Burger meal: items=1,2,5 price=900              (each complete set costs price)
+    //   service Service charge: percent=5
+    //   tax GST: percent=16
+    // Every rule takes optional from/to (HH:mm, may wrap midnight) and days, matched against the order
+    // time, so an order prices the same whenever it is looked at. Combos take their units first, greedily;
+    // each line then gets its single best discount on the units left. Service is charged on the discounted
+    // subtotal, tax on the discounted subtotal plus service.
+    // The rules are compiled into flat arrays indexed by rule and by item, and evaluation writes into a
+    // reusable PriceBreakdown without allocating. Orders cache their breakdown until their lines change.
+    static final class PricingEngine {
+        static final String RULES_FILE = "pricing.rules";
+        static final String[] KINDS = {"discount", "combo", "service", "tax"};
+        static final int DISCOUNT = 0, COMBO = 1, SERVICE = 2, TAX = 3;
+        static final PricingEngine NONE = compile(Collections.emptyList());
+
+        static final class Rule {
+            final int kind;
+            final String name;
+            double percent, off, price = -1; // percent as a fraction
+            int from = -1, to = -1, days = 0x7F, minQty = 1; // minutes of the day; bit 0 = Monday
+            int[] items = {};
+            Rule(int kind, String name) { this.kind = kind; this.name = name; }
+
+            static Rule parse(String line) {
+                int colon = line.indexOf(':'), sp = line.indexOf(' ');
+                if (colon < 0 || sp < 0 || sp > colon) throw new IllegalArgumentException("expected '<kind> <name>: key=value ...'");
+                int kind = Arrays.asList(KINDS).indexOf(line.substring(0, sp));
+                if (kind < 0) throw new IllegalArgumentException("unknown rule kind '" + line.substring(0, sp) + "', expected one of " + String.join(", ", KINDS));
+                Rule r = new Rule(kind, line.substring(sp + 1, colon).trim());
+                for (String kv : line.substring(colon + 1).trim().split("\\s+")) {
+                    if (kv.isEmpty()) continue;
+                    int eq = kv.indexOf('=');
+                    if (eq <= 0) throw new IllegalArgumentException("expected key=value, got " + kv);
+                    String v = kv.substring(eq + 1);
+                    switch (kv.substring(0, eq)) {
+                        case "percent": r.percent = Double.parseDouble(v) / 100; break;
+                        case "off": r.off = Double.parseDouble(v); break;
+                        case "price": r.price = Double.parseDouble(v); break;
+                        case "minQty": r.minQty = Integer.parseInt(v); break;
+                        case "items": r.items = Arrays.stream(v.split(",")).mapToInt(s -> Integer.parseInt(s.trim())).toArray(); break;
+                        case "from": r.from = minuteOf(v); break;
+                        case "to": r.to = minuteOf(v); break;
+                        case "days": r.days = daysOf(v); break;
+                        default: throw new IllegalArgumentException("unknown key " + kv.substring(0, eq));
+                    }
+                }
+                if ((r.from < 0) != (r.to < 0)) throw new IllegalArgumentException("from and to go together");
+                if (r.percent < 0 || r.percent > 1 || r.off < 0) throw new IllegalArgumentException("percent must be 0-100 and off positive");
+                if (kind == DISCOUNT && r.percent == 0 && r.off == 0) throw new IllegalArgumentException("discount needs percent or off");
+                if (kind == COMBO && (r.items.length < 2 || r.price < 0)) throw new IllegalArgumentException("combo needs at least two items and a price");
+                if ((kind == SERVICE || kind == TAX) && r.percent == 0) throw new IllegalArgumentException(KINDS[kind] + " needs percent");
+                return r;
+            }
+
+            static int minuteOf(String hhmm) {
+                String[] p = hhmm.split(":");
+                int h = Integer.parseInt(p[0]), m = p.length > 1 ? Integer.parseInt(p[1]) : 0;
+                if (h < 0 || h > 24 || m < 0 || m > 59) throw new IllegalArgumentException("bad time " + hhmm);
+                return (h * 60 + m) % 1440;
+            }
+
+            // e.g. "MON-FRI", "SAT,SUN", "FRI-MON"
+            static int daysOf(String spec) {
+                int bits = 0;
+                for (String part : spec.split(",")) {
+                    String[] range = part.split("-");
+                    int a = dayOf(range[0]), b = range.length > 1 ? dayOf(range[1]) : a;
+                    for (int d = a; ; d = (d + 1) % 7) { bits |= 1 << d; if (d == b) break; }
+                }
+                return bits;
+            }
+
+            static int dayOf(String s) {
+                String u = s.trim().toUpperCase();
+                for (java.time.DayOfWeek d : java.time.DayOfWeek.values()) if (u.length() >= 3 && d.name().startsWith(u)) return d.ordinal();
+                throw new IllegalArgumentException("bad day " + s);
+            }
+        }
+
+        final List<Rule> rules; // in file order; rule indexes below refer to this list
+        private final int[] kind, from, to, days, minQty;
+        private final double[] percent, off, price;
+        private final boolean timed; // some rule has a time window or day filter
+        private final int[] itemIds; // sorted ids of items named by discounts or combos
+        private final int[][] itemDiscounts; // per itemIds entry: discounts for that item plus the all-item ones
+        private final int[] allItemDiscounts; // discounts without an item list
+        private final int[][] anchoredCombos; // per itemIds entry: combos whose first item it is
+        private final int[][] comboItems, comboCounts; // per combo rule: distinct items and units of each per set
+        private final int[] charges; // service rules, then tax rules
+        private final TimeZone zone = TimeZone.getDefault();
+
+        private PricingEngine(List<Rule> rules) {
+            this.rules = rules;
+            int n = rules.size();
+            kind = new int[n]; from = new int[n]; to = new int[n]; days = new int[n]; minQty = new int[n];
+            percent = new double[n]; off = new double[n]; price = new double[n];
+            comboItems = new int[n][]; comboCounts = new int[n][];
+            TreeMap<Integer, List<Integer>> discounts = new TreeMap<>(), anchors = new TreeMap<>();
+            List<Integer> allItems = new ArrayList<>(), service = new ArrayList<>(), tax = new ArrayList<>();
+            boolean anyTimed = false;
+            for (int r = 0; r < n; r++) {
+                Rule rule = rules.get(r);
+                kind[r] = rule.kind; from[r] = rule.from; to[r] = rule.to; days[r] = rule.days; minQty[r] = rule.minQty;
+                percent[r] = rule.percent; off[r] = rule.off; price[r] = rule.price;
+                anyTimed |= rule.from >= 0 || rule.days != 0x7F;
+                if (rule.kind == DISCOUNT) {
+                    if (rule.items.length == 0) allItems.add(r);
+                    for (int id : rule.items) {
+                        List<Integer> l = discounts.computeIfAbsent(id, k -> new ArrayList<>());
+                        if (l.isEmpty() || l.get(l.size() - 1) != r) l.add(r);
+                    }
+                } else if (rule.kind == COMBO) {
+                    LinkedHashMap<Integer, Integer> units = new LinkedHashMap<>();
+                    for (int id : rule.items) units.merge(id, 1, Integer::sum);
+                    comboItems[r] = units.keySet().stream().mapToInt(Integer::intValue).toArray();
+                    comboCounts[r] = units.values().stream().mapToInt(Integer::intValue).toArray();
+                    anchors.computeIfAbsent(comboItems[r][0], k -> new ArrayList<>()).add(r);
+                } else {
+                    (rule.kind == SERVICE ? service : tax).add(r);
+                }
+            }
+            timed = anyTimed;
+            TreeSet<Integer> ids = new TreeSet<>(discounts.keySet());
+            ids.addAll(anchors.keySet());
+            itemIds = ids.stream().mapToInt(Integer::intValue).toArray();
+            itemDiscounts = new int[itemIds.length][];
+            anchoredCombos = new int[itemIds.length][];
+            for (int k = 0; k < itemIds.length; k++) {
+                TreeSet<Integer> d = new TreeSet<>(allItems); // file order, so ties go to the earlier rule
+                d.addAll(discounts.getOrDefault(itemIds[k], Collections.emptyList()));
+                itemDiscounts[k] = d.stream().mapToInt(Integer::intValue).toArray();
+                anchoredCombos[k] = anchors.getOrDefault(itemIds[k], Collections.emptyList()).stream().mapToInt(Integer::intValue).toArray();
+            }
+            allItemDiscounts = allItems.stream().mapToInt(Integer::intValue).toArray();
+            service.addAll(tax);
+            charges = service.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        static PricingEngine compile(List<Rule> rules) { return new PricingEngine(new ArrayList<>(rules)); }
+
+        // no file means plain line totals; a file that cannot be read or parsed stops startup, since
+        // carrying on without its rules would bill and lock every order without tax or service charge
+        static PricingEngine load(File dir) {
+            File f = new File(dir, RULES_FILE);
+            if (!f.exists()) return NONE;
+            try {
+                PricingEngine e = compile(parse(java.nio.file.Files.readAllLines(f.toPath(), StandardCharsets.UTF_8)));
+                System.out.println("Pricing: " + e.rules.size() + " rules from " + f);
+                return e;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read " + f + ": " + e.getMessage(), e);
+            } catch (RuntimeException e) {
+                throw new UncheckedIOException("Invalid " + f + ": " + e.getMessage(), new IOException(e));
+            }
+        }
+
+        static List<Rule> parse(List<String> lines) {
+            List<Rule> rules = new ArrayList<>();
+            for (int n = 0; n < lines.size(); n++) {
+                String line = lines.get(n);
+                int hash = line.indexOf('#');
+                if (hash >= 0) line = line.substring(0, hash);
+                line = line.trim();
+                if (line.isEmpty()) continue;
+                try { rules.add(Rule.parse(line)); }
+                catch (RuntimeException e) { throw new IllegalArgumentException("line " + (n + 1) + ": " + e.getMessage()); }
+            }
+            return rules;
+        }
+
+        String name(int rule) { return rules.get(rule).name; }
+        boolean isCharge(int rule) { return kind[rule] == SERVICE || kind[rule] == TAX; }
+
+        // cached breakdown of the order's current lines; computed again after any line changes
+        PriceBreakdown quote(Order o) {
+            long fp = fingerprint(o);
+            PriceBreakdown b = o.price;
+            if (b != null && b.engine == this && b.fingerprint == fp) return b;
+            b = new PriceBreakdown();
+            price(o, b);
+            b.engine = this;
+            b.fingerprint = fp;
+            o.price = b; // published complete through the volatile field
+            return b;
+        }
+
+        static long fingerprint(Order o) {
+            long h = o.orderDate.getTime();
+            for (int i = 0, n = o.items.size(); i < n; i++) {
+                OrderItem oi = o.items.get(i);
+                h = h * 0x9E3779B97F4A7C15L + oi.itemID;
+                h = h * 0x9E3779B97F4A7C15L + oi.qty;
+                h = h * 0x9E3779B97F4A7C15L + Double.doubleToLongBits(oi.priceSnapshot);
+            }
+            return h;
+        }
+
+        // the evaluator: fills b from scratch and allocates nothing once b has room for the order
+        void price(Order o, PriceBreakdown b) {
+            List<OrderItem> lines = o.items;
+            int n = lines.size();
+            b.reset(n);
+            for (int i = 0; i < n; i++) {
+                OrderItem oi = lines.get(i);
+                b.lineGross[i] = oi.qty * oi.priceSnapshot;
+                b.gross += b.lineGross[i];
+                b.remaining[i] = oi.qty;
+                b.itemIndex[i] = itemIds.length == 0 ? -1 : Arrays.binarySearch(itemIds, oi.itemID);
+            }
+            int minute = 0, day = 0;
+            if (timed) {
+                long t = o.orderDate.getTime();
+                long local = t + zone.getOffset(t);
+                minute = (int) Math.floorMod(local / 60000, 1440L);
+                day = (int) Math.floorMod(Math.floorDiv(local, 86400000L) + 3, 7L); // 1970-01-01 was a Thursday
+            }
+            double discount = 0;
+            // combos, anchored at the first line holding their first item
+            for (int i = 0; i < n; i++) {
+                int k = b.itemIndex[i];
+                if (k < 0 || anchoredCombos[k].length == 0 || seenBefore(lines, i)) continue;
+                for (int r : anchoredCombos[k]) if (active(r, minute, day)) discount += applyCombo(lines, b, r);
+            }
+            // then the best single discount for each line's remaining units
+            for (int i = 0; i < n; i++) {
+                int units = b.remaining[i];
+                if (units == 0) continue;
+                int k = b.itemIndex[i];
+                int[] candidates = k < 0 ? allItemDiscounts : itemDiscounts[k];
+                OrderItem oi = lines.get(i);
+                double best = 0;
+                int bestRule = -1;
+                for (int r : candidates) {
+                    if (oi.qty < minQty[r] || !active(r, minute, day)) continue;
+                    double d = Math.min(units * oi.priceSnapshot, units * (oi.priceSnapshot * percent[r] + off[r]));
+                    if (d > best) { best = d; bestRule = r; }
+                }
+                if (bestRule >= 0) {
+                    best = round(best);
+                    b.lineDiscount[i] = best;
+                    b.lineRule[i] = bestRule;
+                    b.addApplied(bestRule, best);
+                    discount += best;
+                }
+            }
+            b.discount = discount;
+            double net = b.gross - discount, service = 0, tax = 0;
+            for (int r : charges) {
+                if (!active(r, minute, day)) continue;
+                double c = round(kind[r] == SERVICE ? net * percent[r] : (net + service) * percent[r]);
+                if (c == 0) continue;
+                if (kind[r] == SERVICE) service += c; else tax += c;
+                b.addApplied(r, c);
+            }
+            b.service = service;
+            b.tax = tax;
+            b.total = net + service + tax;
+        }
+
+        private boolean active(int r, int minute, int day) {
+            if ((days[r] & (1 << day)) == 0) return false;
+            if (from[r] < 0) return true;
+            return from[r] <= to[r] ? minute >= from[r] && minute < to[r] : minute >= from[r] || minute < to[r];
+        }
+
+        private static boolean seenBefore(List<OrderItem> lines, int i) {
+            int id = lines.get(i).itemID;
+            for (int j = 0; j < i; j++) if (lines.get(j).itemID == id) return true;
+            return false;
+        }
+
+        // takes as many complete sets as the remaining units allow, if that is cheaper; returns the saving
+        private double applyCombo(List<OrderItem> lines, PriceBreakdown b, int r) {
+            int[] ids = comboItems[r], counts = comboCounts[r];
+            int sets = Integer.MAX_VALUE;
+            for (int j = 0; j < ids.length && sets > 0; j++) {
+                int units = 0;
+                for (int i = 0; i < b.lines; i++) if (lines.get(i).itemID == ids[j]) units += b.remaining[i];
+                sets = Math.min(sets, units / counts[j]);
+            }
+            if (sets == 0) return 0;
+            double saving = round(take(lines, b, r, sets, false) - sets * price[r]);
+            if (saving <= 0) return 0;
+            take(lines, b, r, sets, true);
+            b.addApplied(r, saving);
+            return saving;
+        }
+
+        // list price of the units the sets would use, taken from the first lines holding each item
+        private double take(List<OrderItem> lines, PriceBreakdown b, int r, int sets, boolean consume) {
+            int[] ids = comboItems[r], counts = comboCounts[r];
+            double list = 0;
+            for (int j = 0; j < ids.length; j++) {
+                int need = counts[j] * sets;
+                for (int i = 0; i < b.lines && need > 0; i++) {
+                    OrderItem oi = lines.get(i);
+                    if (oi.itemID != ids[j]) continue;
+                    int u = Math.min(need, b.remaining[i]);
+                    list += u * oi.priceSnapshot;
+                    need -= u;
+                    if (consume) b.remaining[i] -= u;
+                }
+            }
+            return list;
+        }
+
+        static double round(double rs) { return Math.round(rs * 100) / 100.0; }
+    }
+
+    // price of one order: per line gross and discount, plus the rules that applied and their amounts
+    static final class PriceBreakdown {
+        int lines;
+        double[] lineGross = new double[8], lineDiscount = new double[8];
+        int[] lineRule = new int[8], remaining = new int[8], itemIndex = new int[8];
+        int appliedCount;
+        int[] applied = new int[8]; // rule indexes, in the order they first applied
+        double[] appliedAmount = new double[8]; // saving for discounts and combos, charge for service and tax
+        double gross, discount, service, tax, total;
+        PricingEngine engine; // engine and line fingerprint this breakdown was computed for
+        long fingerprint;
+
+        void reset(int n) {
+            if (lineGross.length < n) {
+                int cap = Math.max(n, lineGross.length * 2);
+                lineGross = new double[cap]; lineDiscount = new double[cap];
+                lineRule = new int[cap]; remaining = new int[cap]; itemIndex = new int[cap];
+            }
+            Arrays.fill(lineDiscount, 0, n, 0);
+            Arrays.fill(lineRule, 0, n, -1);
+            lines = n;
+            appliedCount = 0;
+            gross = discount = service = tax = total = 0;
+        }
+
+        void addApplied(int rule, double amount) {
+            for (int i = 0; i < appliedCount; i++) if (applied[i] == rule) { appliedAmount[i] += amount; return; }
+            if (appliedCount == applied.length) {
+                applied = Arrays.copyOf(applied, appliedCount * 2);
+                appliedAmount = Arrays.copyOf(appliedAmount, appliedCount * 2);
+            }
+            applied[appliedCount] = rule;
+            appliedAmount[appliedCount++] = amount;
+        }
+
+        double lineNet(int i) { return lineGross[i] - lineDiscount[i]; }
+    }
+
+    // ------------------ Bulk import / export (CSV and JSON lines) ------------------
+    // Records are streamed through buffered file channels one at a time, so memory use does not
+    // grow with the file. Imports are applied in batches; each batch is one DataStore commit.
+    static class DataTransfer {
+        static final int BATCH_SIZE = 5000;
+        static final String DATE_FMT = "yyyy-MM-dd HH:mm:ss";
+        static final String[] ITEM_COLS = {"itemID","itemName","price","quantity","description"};
+        static final String[] ORDER_COLS = {"orderID","placedBy","orderDate","billed","billedTotal","itemID","qty","priceSnapshot"};
+        static final String[] BILL_COLS = {"billID","orderID","billDate","amount","filename"};
+
+        interface Progress { void update(long records, int percent); }
+
+        static boolean isCsv(File f) { return f.getName().toLowerCase().endsWith(".csv"); }
+
+        static long run(boolean importing, String kind, File f, Progress p) throws IOException {
+            switch (kind) {
+                case "items": return importing ? importItems(f, p) : exportItems(f, p);
+                case "orders": return importing ? importOrders(f, p) : exportOrders(f, p);
+                case "bills": return importing ? importBills(f, p) : exportBills(f, p);
+                default: throw new IllegalArgumentException("Unknown record type: " + kind);
+            }
+        }
+
+        // ---- export: each export reads one consistent read view, so order entry carries on meanwhile ----
+        static long exportItems(File f, Progress p) throws IOException {
+            try (RecordWriter out = new RecordWriter(f, ITEM_COLS); DataStore.ReadView view = store.openReadView()) {
+                long n = 0, total = store.items.size();
+                for (Item it : view.items()) {
+                    out.write(it.itemID, it.itemName, it.price, it.quantity, it.description);
+                    if (++n % BATCH_SIZE == 0) p.update(n, percent(n, total));
+                }
+                p.update(n, 100);
+                return n;
+            }
+        }
+
+        static long exportOrders(File f, Progress p) throws IOException {
+            try (RecordWriter out = new RecordWriter(f, ORDER_COLS); DataStore.ReadView view = store.openReadView()) {
+                long n = 0, total = store.orders.size() + store.history.orderCount();
+                // closed days one partition at a time, then the open days; an order the view still has
+                // among the open days was compacted after the view was taken and is written only once
+                for (int day : store.history.rollups.keySet()) {
+                    List<Order> closed;
+                    try { closed = store.history.orders(day); } catch (UncheckedIOException e) { throw new IOException(e.getMessage() + ": " + e.getCause(), e.getCause()); }
+                    for (Order o : closed) {
+                        if (view.order(o.orderID) != null) continue;
+                        out.writeOrder(o);
+                        if (++n % BATCH_SIZE == 0) p.update(n, percent(n, total));
+                    }
+                }
+                for (Order o : view.orders()) {
+                    out.writeOrder(o);
+                    if (++n % BATCH_SIZE == 0) p.update(n, percent(n, total));
+                }
+                p.update(n, 100);
+                return n;
+            }
+        }
+
+        static long exportBills(File f, Progress p) throws IOException {
+            try (RecordWriter out = new RecordWriter(f, BILL_COLS); DataStore.ReadView view = store.openReadView()) {
+                long n = 0, total = store.bills.size();
+                for (Bill b : view.bills()) {
+                    out.write(b.billID, b.orderID, b.billDate, b.amount, b.filename);
+                    if (++n % BATCH_SIZE == 0) p.update(n, percent(n, total));
+                }
+                p.update(n, 100);
+                return n;
+            }
+        }
+
+        // ---- import ----
+        static long importItems(File f, Progress p) throws IOException {
+            List<Item> batch = new ArrayList<>(BATCH_SIZE);
+            long n = 0;
+            try (RecordReader in = new RecordReader(f)) {
+                Map<String, Object> r;
+                while ((r = in.next()) != null) {
+                    batch.add(new Item(intOf(r.get("itemID")), strOf(r.get("itemName")), doubleOf(r.get("price")),
+                            intOf(r.get("quantity")), strOf(r.get("description"))));
+                    if (batch.size() == BATCH_SIZE) { n += commitItems(batch); p.update(n, in.percent()); }
+                }
+            }
+            n += commitItems(batch);
+            p.update(n, 100);
+            return n;
+        }
+
+        static long importOrders(File f, Progress p) throws IOException {
+            List<Order> batch = new ArrayList<>(BATCH_SIZE);
+            long n = 0;
+            Order cur = null;
+            try (RecordReader in = new RecordReader(f)) {
+                Map<String, Object> r;
+                while ((r = in.next()) != null) {
+                    int id = intOf(r.get("orderID"));
+                    // CSV carries one row per order line; consecutive rows with the same ID form one order
+                    if (cur != null && id > 0 && cur.orderID == id) { addLines(cur, r); continue; }
+                    if (cur != null) { cur.lockLegacyTotal(); batch.add(cur); }
+                    if (batch.size() == BATCH_SIZE) { n += commitOrders(batch); p.update(n, in.percent()); }
+                    cur = new Order(id, strOf(r.get("placedBy")));
+                    Date d = dateOf(r.get("orderDate"));
+                    if (d != null) cur.orderDate = d;
+                    cur.billed = boolOf(r.get("billed"));
+                    // the amount the order was billed at; files without it were billed at the line sum
+                    if (cur.billed && !strOf(r.get("billedTotal")).trim().isEmpty()) {
+                        cur.totalLocked = true;
+                        cur.lockedTotal = doubleOf(r.get("billedTotal"));
+                    }
+                    addLines(cur, r);
+                }
+            }
+            if (cur != null) { cur.lockLegacyTotal(); batch.add(cur); }
+            n += commitOrders(batch);
+            onEdt(store::compactHistory); // imported orders of closed days go straight to their partitions
+            p.update(n, 100);
+            return n;
+        }
+
+        static long importBills(File f, Progress p) throws IOException {
+            List<Bill> batch = new ArrayList<>(BATCH_SIZE);
+            long n = 0;
+            try (RecordReader in = new RecordReader(f)) {
+                Map<String, Object> r;
+                while ((r = in.next()) != null) {
+                    Bill b = new Bill(intOf(r.get("billID")), intOf(r.get("orderID")), doubleOf(r.get("amount")), strOf(r.get("filename")));
+                    Date d = dateOf(r.get("billDate"));
+                    if (d != null) b.billDate = d;
+                    batch.add(b);
+                    if (batch.size() == BATCH_SIZE) { n += commitBills(batch); p.update(n, in.percent()); }
+                }
+            }
+            n += commitBills(batch);
+            p.update(n, 100);
+            return n;
+        }
+
+        private static void addLines(Order o, Map<String, Object> r) {
+            Object lines = r.get("items");
+            if (lines instanceof List) {
+                for (Object l : (List<?>) lines) {
+                    Map<?, ?> m = (Map<?, ?>) l;
+                    o.items.add(new OrderItem(intOf(m.get("itemID")), intOf(m.get("qty")), doubleOf(m.get("priceSnapshot"))));
+                }
+            } else if (intOf(r.get("itemID")) > 0) {
+                o.items.add(new OrderItem(intOf(r.get("itemID")), intOf(r.get("qty")), doubleOf(r.get("priceSnapshot"))));
+            }
+        }
+
+        // records without an ID get the next free one; records with an ID replace the existing entry
+        private static int commitItems(List<Item> batch) {
+            int n = batch.size();
+            if (n == 0) return 0;
+            onEdt(() -> {
+                List<DataStore.Change> changes = new ArrayList<>(n);
+                for (Item it : batch) {
+                    if (it.itemID <= 0) it.itemID = store.allocateItemId();
+                    changes.add(DataStore.Change.put(DataStore.ITEMS, it.itemID, it));
+                }
+                store.commit(changes);
+            });
+            batch.clear();
+            return n;
+        }
+
+        private static int commitOrders(List<Order> batch) {
+            int n = batch.size();
+            if (n == 0) return 0;
+            onEdt(() -> {
+                List<DataStore.Change> changes = new ArrayList<>(n);
+                for (Order o : batch) {
+                    if (o.orderID <= 0) o.orderID = store.allocateOrderId();
+                    changes.add(DataStore.Change.put(DataStore.ORDERS, o.orderID, o));
+                }
+                store.commit(changes);
+            });
+            batch.clear();
+            return n;
+        }
+
+        private static int commitBills(List<Bill> batch) {
+            int n = batch.size();
+            if (n == 0) return 0;
+            onEdt(() -> {
+                List<DataStore.Change> changes = new ArrayList<>(n);
+                for (Bill b : batch) {
+                    if (b.billID <= 0) b.billID = store.allocateBillId();
+                    changes.add(DataStore.Change.put(DataStore.BILLS, b.billID, b));
+                }
+                store.commit(changes);
+            });
+            batch.clear();
+            return n;
+        }
+
+        // the GUI reads the store on the EDT, so batches are applied there when a worker thread imports
+        static void onEdt(Runnable r) {
+            if (SwingUtilities.isEventDispatchThread()) { r.run(); return; }
+            try { SwingUtilities.invokeAndWait(r); }
+            catch (Exception e) { throw new IllegalStateException("Commit failed", e); }
+        }
+
+        static int percent(long done, long total) { return total <= 0 ? 100 : (int) Math.min(100, done * 100 / total); }
+
+        // ---- value conversion (CSV gives strings, JSON gives numbers/booleans) ----
+        static String strOf(Object v) { return v == null ? "" : String.valueOf(v); }
+        static int intOf(Object v) {
+            if (v instanceof Number) return ((Number) v).intValue();
+            String s = strOf(v).trim();
+            return s.isEmpty() ? 0 : Integer.parseInt(s);
+        }
+        static double doubleOf(Object v) {
+            if (v instanceof Number) return ((Number) v).doubleValue();
+            String s = strOf(v).trim();
+            return s.isEmpty() ? 0 : Double.parseDouble(s);
+        }
+        static boolean boolOf(Object v) { return v instanceof Boolean ? (Boolean) v : Boolean.parseBoolean(strOf(v).trim()); }
+        static Date dateOf(Object v) {
+            String s = strOf(v).trim();
+            if (s.isEmpty()) return null;
+            try { return new SimpleDateFormat(DATE_FMT).parse(s); }
+            catch (java.text.ParseException e) { throw new IllegalArgumentException("Bad date: " + s); }
+        }
+
+        // ---- streaming reader: one record (header -> value) per call ----
+        static class RecordReader implements Closeable {
+            final FileChannel channel;
+            final BufferedReader in;
+            final boolean csv;
+            final long size;
+            String[] header;
+            long line;
+
+            RecordReader(File f) throws IOException {
+                channel = FileChannel.open(f.toPath(), StandardOpenOption.READ);
+                size = channel.size();
+                in = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), 1 << 16), 1 << 16);
+                csv = isCsv(f);
+                if (csv) { List<String> h = readCsv(); header = h == null ? new String[0] : h.toArray(new String[0]); }
+            }
+
+            Map<String, Object> next() throws IOException {
+                if (csv) {
+                    List<String> vals = readCsv();
+                    if (vals == null) return null;
+                    Map<String, Object> r = new HashMap<>();
+                    for (int i = 0; i < header.length && i < vals.size(); i++) r.put(header[i], vals.get(i));
+                    return r;
+                }
+                String s;
+                while ((s = in.readLine()) != null) {
+                    line++;
+                    if (s.trim().isEmpty()) continue;
+                    Object o;
+                    try { o = Json.parse(s); } catch (RuntimeException e) { throw new IOException("Line " + line + ": " + e.getMessage()); }
+                    if (!(o instanceof Map)) throw new IOException("Line " + line + ": expected a JSON object");
+                    return (Map<String, Object>) o;
+                }
+                return null;
+            }
+
+            // reads one CSV record, continuing onto following lines while inside a quoted field
+            private List<String> readCsv() throws IOException {
+                String s = in.readLine();
+                while (s != null && s.isEmpty()) s = in.readLine();
+                if (s == null) return null;
+                line++;
+                List<String> out = new ArrayList<>();
+                StringBuilder sb = new StringBuilder();
+                boolean quoted = false;
+                while (true) {
+                    for (int i = 0; i < s.length(); i++) {
+                        char c = s.charAt(i);
+                        if (quoted) {
+                            if (c == '"' && i + 1 < s.length() && s.charAt(i + 1) == '"') { sb.append('"'); i++; }
+                            else if (c == '"') quoted = false;
+                            else sb.append(c);
+                        } else if (c == '"') quoted = true;
+                        else if (c == ',') { out.add(sb.toString()); sb.setLength(0); }
+                        else sb.append(c);
+                    }
+                    if (!quoted) break;
+                    s = in.readLine();
+                    if (s == null) throw new IOException("Line " + line + ": unterminated quoted field");
+                    line++;
+                    sb.append('\n');
+                }
+                out.add(sb.toString());
+                return out;
+            }
+
+            int percent() {
+                try { return DataTransfer.percent(channel.position(), size); } catch (IOException e) { return 0; }
+            }
+
+            public void close() throws IOException { in.close(); }
+        }
+
+        // ---- streaming writer ----
+        static class RecordWriter implements Closeable {
+            final BufferedWriter out;
+            final boolean csv;
+            final String[] cols;
+            final SimpleDateFormat sdf = new SimpleDateFormat(DATE_FMT);
+
+            RecordWriter(File f, String[] cols) throws IOException {
+                FileChannel ch = FileChannel.open(f.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                out = new BufferedWriter(Channels.newWriter(ch, StandardCharsets.UTF_8.newEncoder(), 1 << 16), 1 << 16);
+                csv = isCsv(f);
+                this.cols = cols;
+                if (csv) { out.write(String.join(",", cols)); out.newLine(); }
+            }
+
+            void write(Object... vals) throws IOException {
+                if (csv) {
+                    for (int i = 0; i < vals.length; i++) { if (i > 0) out.write(','); out.write(csvField(vals[i])); }
+                } else {
+                    out.write('{');
+                    for (int i = 0; i < vals.length; i++) {
+                        if (i > 0) out.write(',');
+                        out.write(Json.quote(cols[i])); out.write(':'); out.write(jsonValue(vals[i]));
+                    }
+                    out.write('}');
+                }
+                out.newLine();
+            }
+
+            // CSV: one row per order line (an order without lines still gets one row); JSON: one object per order
+            void writeOrder(Order o) throws IOException {
+                Double billedTotal = o.totalLocked ? o.lockedTotal : null;
+                if (csv) {
+                    if (o.items.isEmpty()) write(o.orderID, o.placedByUsername, o.orderDate, o.billed, billedTotal, null, null, null);
+                    for (OrderItem oi : o.items) write(o.orderID, o.placedByUsername, o.orderDate, o.billed, billedTotal, oi.itemID, oi.qty, oi.priceSnapshot);
+                    return;
+                }
+                out.write("{\"orderID\":" + o.orderID + ",\"placedBy\":" + jsonValue(o.placedByUsername) + ",\"orderDate\":" + jsonValue(o.orderDate)
+                        + ",\"billed\":" + o.billed + ",\"billedTotal\":" + jsonValue(billedTotal) + ",\"items\":[");
+                for (int i = 0; i < o.items.size(); i++) {
+                    OrderItem oi = o.items.get(i);
+                    if (i > 0) out.write(',');
+                    out.write("{\"itemID\":" + oi.itemID + ",\"qty\":" + oi.qty + ",\"priceSnapshot\":" + oi.priceSnapshot + "}");
+                }
+                out.write("]}");
+                out.newLine();
+            }
+
+            private String csvField(Object v) {
+                String s = v == null ? "" : v instanceof Date ? sdf.format((Date) v) : String.valueOf(v);
+                if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) return s;
+                return "\"" + s.replace("\"", "\"\"") + "\"";
+            }
+
+            private String jsonValue(Object v) {
+                if (v == null) return "null";
+                if (v instanceof Number || v instanceof Boolean) return String.valueOf(v);
+                if (v instanceof Date) return Json.quote(sdf.format((Date) v));
+                return Json.quote(String.valueOf(v));
+            }
+
+            public void close() throws IOException { out.close(); }
+        }
+    }
+
+    // minimal JSON support for the JSON-lines format: objects, arrays, strings, numbers, booleans, null
+    static class Json {
+        private final String s;
+        private int i;
+        private Json(String s) { this.s = s; }
+
+        static Object parse(String s) {
+            Json j = new Json(s);
+            Object v = j.value();
+            j.ws();
+            if (j.i != s.length()) throw j.error("trailing characters");
+            return v;
+        }
+
+        static String quote(String v) {
+            StringBuilder sb = new StringBuilder(v.length() + 2).append('"');
+            for (int k = 0; k < v.length(); k++) {
+                char c = v.charAt(k);
+                switch (c) {
+                    case '"': sb.append("\\\""); break;
+                    case '\\': sb.append("\\\\"); break;
+                    case '\n': sb.append("\\n"); break;
+                    case '\r': sb.append("\\r"); break;
+                    case '\t': sb.append("\\t"); break;
+                    default:
+                        if (c < 0x20) sb.append(String.format("\\u%04x", (int) c)); else sb.append(c);
+                }
+            }
+            return sb.append('"').toString();
+        }
+
+        private Object value() {
+            ws();
+            if (i >= s.length()) throw error("unexpected end");
+            char c = s.charAt(i);
+            if (c == '{') {
+                Map<String, Object> m = new LinkedHashMap<>();
+                i++; ws();
+                if (peek('}')) { i++; return m; }
+                while (true) {
+                    ws();
+                    if (!peek('"')) throw error("expected key");
+                    String k = string();
+                    ws(); expect(':');
+                    m.put(k, value());
+                    ws();
+                    if (!peek(',')) break;
+                    i++;
+                }
+                expect('}');
+                return m;
+            }
+            if (c == '[') {
+                List<Object> l = new ArrayList<>();
+                i++; ws();
+                if (peek(']')) { i++; return l; }
+                while (true) {
+                    l.add(value()); ws();
+                    if (!peek(',')) break;
+                    i++;
+                }
+                expect(']');
+                return l;
+            }
+            if (c == '"') return string();
+            if (s.startsWith("true", i)) { i += 4; return Boolean.TRUE; }
+            if (s.startsWith("false", i)) { i += 5; return Boolean.FALSE; }
+            if (s.startsWith("null", i)) { i += 4; return null; }
+            int start = i;
+            while (i < s.length() && "+-0123456789.eE".indexOf(s.charAt(i)) >= 0) i++;
+            if (start == i) throw error("unexpected '" + c + "'");
+            return Double.parseDouble(s.substring(start, i));
+        }
+
+        private String string() {
+            StringBuilder sb = new StringBuilder();
+            i++;
+            while (i < s.length()) {
+                char c = s.charAt(i++);
+                if (c == '"') return sb.toString();
+                if (c != '\\') { sb.append(c); continue; }
+                if (i >= s.length()) break;
+                char e = s.charAt(i++);
+                switch (e) {
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'u':
+                        if (i + 4 > s.length()) throw error("bad escape");
+                        sb.append((char) Integer.parseInt(s.substring(i, i + 4), 16)); i += 4; break;
+                    default: sb.append(e);
+                }
+            }
+            throw error("unterminated string");
+        }
+
+        private void ws() { while (i < s.length() && Character.isWhitespace(s.charAt(i))) i++; }
+        private boolean peek(char c) { return i < s.length() && s.charAt(i) == c; }
+        private void expect(char c) { if (!peek(c)) throw error("expected '" + c + "'"); i++; }
+        private IllegalArgumentException error(String msg) { return new IllegalArgumentException(msg + " at column " + (i + 1)); }
+    }
+
+    // ------------------ Replication: the primary streams its change log to replicas ------------------
+    // Wire format (DataOutputStream): the replica opens with (token, logId, appliedSeq); the primary closes
+    // the connection without sending anything unless the token matches its own. If the primary still
+    // holds every change after appliedSeq for that log it resumes from there, otherwise it first sends
+    // a snapshot frame 'S' (logId, seq, bytes). Changes follow as 'C' (seq, bytes) frames, in commit order.
+    // Users travel with a salted password hash instead of the password. The primary listens on
+    // bitewave.replication.bind (default 127.0.0.1) and will not start without bitewave.replication.token.
+    static class Replication {
+        static final int LOG_RETAIN = 10000;   // changes of recent commits kept in memory for replica catch-up
+        static final int MAX_BACKLOG = 100000; // a replica this many commits behind is dropped and re-syncs on reconnect
+        static final int RETRY_MS = 1000;
+        static final int HANDSHAKE_TIMEOUT_MS = 10000;
+        static final String TOKEN_PROPERTY = "bitewave.replication.token";
+
+        static String token() { return System.getProperty(TOKEN_PROPERTY, ""); }
+        static String bindAddress() { return System.getProperty("bitewave.replication.bind", "127.0.0.1"); }
+
+        // what leaves this terminal: users without their passwords
+        static DataStore.Change forReplica(DataStore.Change c) {
+            return c.value instanceof User ? DataStore.Change.put(c.collection, c.key, ((User) c.value).withoutPassword()) : c;
+        }
+
+        static Object[] forReplica(Object[] maps) {
+            Map<String, User> users = new HashMap<>();
+            for (User u : ((Map<String, User>) maps[0]).values()) users.put(u.username, u.withoutPassword());
+            Object[] copy = maps.clone();
+            copy[0] = users;
+            return copy;
+        }
+
+        static byte[] encode(Object o) throws IOException {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bos)) { out.writeObject(o); }
+            return bos.toByteArray();
+        }
+
+        static Object decode(byte[] b) throws IOException {
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(b))) { return in.readObject(); }
+            catch (ClassNotFoundException e) { throw new IOException(e); }
+        }
+
+        static byte[] readBytes(DataInputStream in) throws IOException {
+            byte[] b = new byte[in.readInt()];
+            in.readFully(b);
+            return b;
+        }
+
+        // one encoded commit: count changes ending at seq
+        private static class Entry {
+            final long seq; final int count; final byte[] data;
+            Entry(long seq, int count, byte[] data) { this.seq = seq; this.count = count; this.data = data; }
+        }
+
+        static class Primary implements DataStore.ChangeListener, Closeable {
+            final DataStore store;
+            final ServerSocket server;
+            final String logId = UUID.randomUUID().toString(); // a restarted primary starts a new log
+            private final byte[] token;
+            // guarded by the store lock: encoded commits ending at lastSeq, logChanges changes in all
+            private final ArrayDeque<Entry> log = new ArrayDeque<>();
+            private final ArrayList<DataStore.Change> pending = new ArrayList<>(); // the commit being published
+            private long lastSeq, logChanges;
+            private final List<Session> sessions = new CopyOnWriteArrayList<>();
+            private volatile boolean closed;
+
+            Primary(DataStore store, String bindAddress, int port, String token) throws IOException {
+                if (token == null || token.isEmpty()) throw new IOException("set -D" + TOKEN_PROPERTY + " to a shared secret first");
+                this.store = store;
+                this.token = token.getBytes(StandardCharsets.UTF_8);
+                server = new ServerSocket(port, 50, java.net.InetAddress.getByName(bindAddress));
+                synchronized (store) { lastSeq = store.seq; store.addListener(this); }
+                new Thread(this::acceptLoop, "replication-accept").start();
+            }
+
+            int port() { return server.getLocalPort(); }
+            int replicaCount() { return sessions.size(); }
+
+            // called under the store lock, so commits are queued in order; each one travels as a single frame
+            public void committed(long seq, DataStore.Change c, Object previous) { pending.add(forReplica(c)); }
+
+            public void committedAll(long seq) {
+                Entry e;
+                try { e = new Entry(seq, pending.size(), encode(new ArrayList<>(pending))); }
+                catch (IOException ex) { throw new UncheckedIOException(ex); }
+                finally { pending.clear(); }
+                log.addLast(e);
+                logChanges += e.count;
+                while (logChanges > LOG_RETAIN && log.size() > 1) logChanges -= log.removeFirst().count;
+                lastSeq = seq;
+                for (Session s : sessions) s.enqueue(e);
+            }
+
+            private void acceptLoop() {
+                while (!closed) {
+                    try {
+                        Socket s = server.accept();
+                        Thread t = new Thread(new Session(s), "replication-" + s.getRemoteSocketAddress());
+                        t.setDaemon(true);
+                        t.start();
+                    } catch (IOException e) {
+                        if (!closed) e.printStackTrace();
+                    }
+                }
+            }
+
+            public void close() throws IOException {
+                closed = true;
+                store.removeListener(this);
+                server.close();
+                for (Session s : sessions) s.close();
+            }
+
+            private class Session implements Runnable {
+                final Socket socket;
+                final LinkedBlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+                Session(Socket socket) { this.socket = socket; }
+
+                void enqueue(Entry e) {
+                    if (queue.size() >= MAX_BACKLOG) close(); else queue.add(e);
+                }
+
+                public void run() {
+                    try {
+                        socket.setTcpNoDelay(true);
+                        socket.setSoTimeout(HANDSHAKE_TIMEOUT_MS);
+                        DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                        if (!MessageDigest.isEqual(token, in.readUTF().getBytes(StandardCharsets.UTF_8))) {
+                            System.err.println("Replication: rejected " + socket.getRemoteSocketAddress() + " (wrong token)");
+                            return;
+                        }
+                        String replicaLog = in.readUTF();
+                        long replicaSeq = in.readLong();
+                        socket.setSoTimeout(0);
+                        byte[] snapshot = null;
+                        long snapshotSeq = 0;
+                        synchronized (store) {
+                            // a replica resumes from the end of any commit still in the log, or from just before the oldest
+                            boolean resume = false;
+                            if (logId.equals(replicaLog)) {
+                                resume = replicaSeq == (log.isEmpty() ? lastSeq : log.peekFirst().seq - log.peekFirst().count);
+                                for (Entry e : log) if (e.seq == replicaSeq) resume = true;
+                            }
+                            if (resume) {
+                                for (Entry e : log) if (e.seq > replicaSeq) queue.add(e);
+                            } else {
+                                snapshot = encode(forReplica(store.snapshotMaps()));
+                                snapshotSeq = lastSeq;
+                            }
+                            sessions.add(this);
+                        }
+                        if (snapshot != null) {
+                            out.writeByte('S'); out.writeUTF(logId); out.writeLong(snapshotSeq);
+                            out.writeInt(snapshot.length); out.write(snapshot);
+                        }
+                        while (!closed && !socket.isClosed()) {
+                            Entry e = queue.isEmpty() ? null : queue.poll();
+                            if (e == null) { out.flush(); e = queue.take(); } // flush only once caught up
+                            out.writeByte('C'); out.writeLong(e.seq); out.writeInt(e.data.length); out.write(e.data); // one commit
+                        }
+                    } catch (IOException | InterruptedException e) {
+                        // replica went away; it will reconnect and catch up
+                    } finally {
+                        close();
+                    }
+                }
 
-        btnCreate.addActionListener(e -> {
-            String username = askWhichEmployee();
-            if (username == null) return;
-            Order o = new Order(store.nextOrderId++, username);
-            boolean saved = editOrderDialog(o);
-            if (saved) {
-                store.orders.put(o.orderID, o); store.saveOrders(); refreshOrders(model);
+                void close() {
+                    sessions.remove(this);
+                    try { socket.close(); } catch (IOException ignored) {}
+                }
             }
-        });
+        }
 
-        btnView.addActionListener(e -> {
-            int sel = table.getSelectedRow();
-            if (sel < 0) { JOptionPane.showMessageDialog(panel, "Select order."); return; }
-            int id = (int) model.getValueAt(sel,0);
-            Order o = store.orders.get(id);
-            if (o == null) return;
-            boolean saved = editOrderDialog(o);
-            if (saved) { store.saveOrders(); refreshOrders(model); }
-        });
+        // follows a primary, applying its changes to a local read-only store until promoted
+        static class Replica implements Closeable {
+            final DataStore store;
+            final String host;
+            final int port;
+            private final Thread thread;
+            private volatile boolean stopped;
+            private volatile boolean connected;
+            private volatile Socket socket;
+            private String logId = "";
+            private final String token;
+
+            Replica(DataStore store, String host, int port, String token) {
+                this.store = store; this.host = host; this.port = port; this.token = token;
+                store.readOnly = true;
+                thread = new Thread(this::run, "replica-" + host + ":" + port);
+                thread.start();
+            }
 
-        btnDelete.addActionListener(e -> {
-            int sel = table.getSelectedRow();
-            if (sel < 0) { JOptionPane.showMessageDialog(panel, "Select order."); return; }
-            int id = (int) model.getValueAt(sel,0);
-            int ok = JOptionPane.showConfirmDialog(panel, "Delete order " + id + "?", "Confirm", JOptionPane.YES_NO_OPTION);
-            if (ok == JOptionPane.YES_OPTION) {
-                store.orders.remove(id); store.saveOrders(); refreshOrders(model);
+            boolean isConnected() { return connected; }
+            long appliedSeq() { synchronized (store) { return store.seq; } }
+
+            private void run() {
+                while (!stopped) {
+                    try (Socket s = new Socket(host, port)) {
+                        socket = s;
+                        s.setTcpNoDelay(true);
+                        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()));
+                        out.writeUTF(token); out.writeUTF(logId); out.writeLong(appliedSeq()); out.flush();
+                        DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+                        connected = true;
+                        while (!stopped) {
+                            int type = in.read();
+                            if (type < 0) break;
+                            if (type == 'S') {
+                                String id = in.readUTF();
+                                long seq = in.readLong();
+                                store.restoreSnapshot(seq, (Object[]) decode(readBytes(in)));
+                                logId = id;
+                            } else if (type == 'C') {
+                                long seq = in.readLong();
+                                List<DataStore.Change> commit = (List<DataStore.Change>) decode(readBytes(in));
+                                if (seq - commit.size() != appliedSeq()) { logId = ""; throw new IOException("Gap in change log at " + seq); }
+                                store.applyReplicated(seq, commit);
+                            } else {
+                                throw new IOException("Unknown frame type " + type);
+                            }
+                        }
+                    } catch (IOException | UncheckedIOException e) {
+                        // primary unreachable, connection lost or a commit could not be saved locally; retry below
+                    }
+                    connected = false;
+                    if (!stopped) {
+                        try { Thread.sleep(RETRY_MS); } catch (InterruptedException e) { return; }
+                    }
+                }
             }
-        });
 
-        btnBill.addActionListener(e -> {
-            int sel = table.getSelectedRow();
-            if (sel < 0) { JOptionPane.showMessageDialog(panel, "Select order."); return; }
-            int id = (int) model.getValueAt(sel,0);
-            Order o = store.orders.get(id);
-            if (o == null) return;
-            if (o.items.isEmpty()) { JOptionPane.showMessageDialog(panel, "Order has no items."); return; }
-            if (o.billed) { JOptionPane.showMessageDialog(panel, "Order already billed."); return; }
-            String fname = generateBillFile(o);
-            if (fname != null) {
-                Bill b = new Bill(store.nextBillId++, o.orderID, o.total(), fname);
-                store.bills.put(b.billID, b);
-                o.billed = true;
-                store.saveBills(); store.saveOrders();
-                JOptionPane.showMessageDialog(panel, "Bill created: " + fname);
-                refreshOrders(model);
+            // stop following the primary and make the local store writable
+            DataStore promote() {
+                close();
+                synchronized (store) { store.readOnly = false; store.recomputeIds(); }
+                return store;
             }
-        });
 
-        return panel;
+            public void close() {
+                stopped = true;
+                Socket s = socket;
+                if (s != null) { try { s.close(); } catch (IOException ignored) {} }
+                thread.interrupt();
+                try { thread.join(); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+            }
+        }
     }
 
-    static void refreshOrders(DefaultTableModel model) {
-        model.setRowCount(0);
-        List<Integer> keys = new ArrayList<>(store.orders.keySet()); Collections.sort(keys);
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm");
-        for (int id: keys) {
-            Order o = store.orders.get(id);
-            model.addRow(new Object[]{o.orderID, o.placedByUsername, sdf.format(o.orderDate), o.items.size(), o.billed, String.format("Rs %.2f", o.total())});
+    // ------------------ Headless workload simulator ------------------
+    // Runs the order panels' operations (create, edit, bill, delete) from several terminal threads
+    // against a scratch DataStore and reports throughput, latency percentiles and data file growth.
+    // Keys: terminals, rate (orders/s over all terminals, 0 = as fast as possible), duration (s),
+    // items, menu (uniform|zipf), skew, size (mean lines per order), maxQty, edit, bill, delete
+    // (probabilities per order), audit (true|false), readers, seed, dir.
+    // Reader threads repeatedly open a DataStore read view and check that it is consistent: billing
+    // commits the bill and the billed order together, so over the open days the bills must match the
+    // billed orders in count and total (compaction moves billed orders to history but keeps their bills,
+    // so bills of orders no longer in the view are left out). simulate fails if any view is inconsistent;
+    // "selftest" is a short fixed run that also fails on any terminal error.
+    static class Simulator {
+        static final String[] OPS = {"create", "edit", "bill", "delete"};
+        static final int CREATE = 0, EDIT = 1, BILL = 2, DELETE = 3;
+
+        final Map<String, String> opts;
+        final int terminals, readers, durationSec, menuSize, meanSize, maxQty;
+        final double rate, skew, pEdit, pBill, pDelete;
+        final boolean zipf, audit;
+        final long seed;
+        final File dir;
+        double[] menuCdf; // cumulative pick probability per menu position
+        List<Item> menu;
+        long failedOrders, inconsistentViews; // results of the last run
+
+        Simulator(String[] args) throws IOException {
+            opts = parseOptions(args);
+            terminals = Integer.parseInt(opt("terminals", "4"));
+            readers = Integer.parseInt(opt("readers", "0"));
+            rate = Double.parseDouble(opt("rate", "10"));
+            durationSec = Integer.parseInt(opt("duration", "30"));
+            menuSize = Integer.parseInt(opt("items", "200"));
+            zipf = opt("menu", "zipf").equals("zipf");
+            skew = Double.parseDouble(opt("skew", "1.0"));
+            meanSize = Integer.parseInt(opt("size", "3"));
+            maxQty = Integer.parseInt(opt("maxQty", "3"));
+            pEdit = Double.parseDouble(opt("edit", "0.3"));
+            pBill = Double.parseDouble(opt("bill", "0.9"));
+            pDelete = Double.parseDouble(opt("delete", "0.02"));
+            audit = Boolean.parseBoolean(opt("audit", "true"));
+            seed = Long.parseLong(opt("seed", "42"));
+            dir = opts.containsKey("dir") ? new File(opts.get("dir")) : java.nio.file.Files.createTempDirectory("bitewave-sim").toFile();
+            if (terminals <= 0 || durationSec <= 0 || menuSize <= 0 || meanSize <= 0 || maxQty <= 0)
+                throw new IllegalArgumentException("terminals, duration, items, size and maxQty must be positive");
         }
-    }
 
-    static String askWhichEmployee() {
-        List<String> employees = new ArrayList<>();
-        for (User u: store.users.values()) if (u instanceof Employee) employees.add(u.getUsername());
-        if (employees.isEmpty()) {
-            JOptionPane.showMessageDialog(null, "No employees exist. Create from Admin -> Employees.");
-            return null;
+        String opt(String key, String def) { return opts.getOrDefault(key, def); }
+
+        static void run(String[] args) throws Exception {
+            System.setProperty("java.awt.headless", "true");
+            Simulator sim = new Simulator(args);
+            sim.simulate();
+            if (sim.inconsistentViews > 0) throw new IllegalStateException(sim.inconsistentViews + " inconsistent read views");
         }
-        String sel = (String) JOptionPane.showInputDialog(null, "Select employee (who places order):", "Place Order", JOptionPane.PLAIN_MESSAGE, null, employees.toArray(), employees.get(0));
-        return sel;
-    }
 
-    static boolean editOrderDialog(Order o) {
-        JDialog dlg = new JDialog((Frame)null, "Edit Order #" + o.orderID, true);
-        dlg.setSize(700,450); dlg.setLocationRelativeTo(null);
-        JPanel main = new JPanel(new BorderLayout(6,6));
-        DefaultTableModel model = new DefaultTableModel(new Object[]{"No","ItemID","Name","Qty","UnitPrice","Subtotal"},0) {
-            public boolean isCellEditable(int r,int c){ return false; }
-        };
-        JTable table = new JTable(model);
-        refreshOrderItems(model, o);
-        main.add(new JScrollPane(table), BorderLayout.CENTER);
+        // writers against view readers for a few seconds; key=value arguments override the defaults
+        static void selftest(String[] args) throws Exception {
+            System.setProperty("java.awt.headless", "true");
+            List<String> keys = new ArrayList<>(Arrays.asList("terminals=4", "rate=0", "duration=5", "readers=2", "audit=false"));
+            keys.addAll(Arrays.asList(args));
+            Simulator sim = new Simulator(keys.toArray(new String[0]));
+            sim.simulate();
+            if (sim.failedOrders > 0 || sim.inconsistentViews > 0)
+                throw new IllegalStateException(sim.failedOrders + " failed orders, " + sim.inconsistentViews + " inconsistent read views");
+            System.out.println("selftest passed");
+        }
 
-        JPanel controls = new JPanel();
-        JButton btnAdd = new JButton("Add Item");
-        JButton btnQty = new JButton("Update Qty");
-        JButton btnRemove = new JButton("Remove");
-        JButton btnSave = new JButton("Save");
-        JButton btnCancel = new JButton("Cancel");
-        controls.add(btnAdd); controls.add(btnQty); controls.add(btnRemove); controls.add(btnSave); controls.add(btnCancel);
-        main.add(controls, BorderLayout.SOUTH);
+        void simulate() throws Exception {
+            dir.mkdirs();
+            store = new DataStore(dir);
+            store.load();
+            seed();
+            AuditLog auditLog = audit ? new AuditLog(store) : null;
+            Map<String, Long> before = fileSizes();
+            System.out.printf("Simulating %d s: %d terminals, %s orders/s, %s menu over %d items, data in %s%n",
+                    durationSec, terminals, rate > 0 ? String.valueOf(rate) : "unthrottled",
+                    zipf ? "zipf(" + skew + ")" : "uniform", menu.size(), dir.getAbsolutePath());
+
+            Latencies[][] lat = new Latencies[terminals][OPS.length];
+            long[] orders = new long[terminals], errors = new long[terminals];
+            long start = System.nanoTime(), end = start + durationSec * 1_000_000_000L;
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < terminals; t++) {
+                final int term = t;
+                for (int op = 0; op < OPS.length; op++) lat[t][op] = new Latencies();
+                Thread th = new Thread(() -> terminal(term, start, end, lat[term], orders, errors), "terminal-" + t);
+                threads.add(th);
+                th.start();
+            }
+            long[][] reads = new long[readers][3]; // views checked, inconsistent views, scan nanos
+            for (int r = 0; r < readers; r++) {
+                final long[] res = reads[r];
+                Thread th = new Thread(() -> checkViews(end, res), "reader-" + r);
+                threads.add(th);
+                th.start();
+            }
+            for (Thread th : threads) th.join();
+            double secs = (System.nanoTime() - start) / 1e9;
+            if (auditLog != null) {
+                auditLog.close();
+                if (auditLog.stalls() > 0) System.out.println("Audit ring was full " + auditLog.stalls() + " times");
+            }
 
-        btnAdd.addActionListener(e -> {
-            if (store.items.isEmpty()) { JOptionPane.showMessageDialog(dlg, "No items available."); return; }
-            List<Item> list = new ArrayList<>(store.items.values()); list.sort(Comparator.comparingInt(it->it.itemID));
-            String[] options = new String[list.size()];
-            for (int i=0;i<list.size();i++) { Item it = list.get(i); options[i] = it.itemID + " - " + it.itemName + " (Rs " + it.price + ")"; }
-            String sel = (String) JOptionPane.showInputDialog(dlg, "Select item:", "Add Item", JOptionPane.PLAIN_MESSAGE, null, options, options[0]);
-            if (sel == null) return;
-            int id = Integer.parseInt(sel.split(" - ")[0].trim());
-            Item chosen = store.items.get(id);
-            String qtyS = JOptionPane.showInputDialog(dlg, "Quantity:", "1");
-            if (qtyS == null) return;
-            try {
-                int q = Integer.parseInt(qtyS.trim());
-                if (q <= 0) { JOptionPane.showMessageDialog(dlg, "Invalid qty."); return; }
-                boolean found=false;
-                for (OrderItem oi: o.items) { if (oi.itemID == id) { oi.qty += q; found=true; break; } }
-                if (!found) o.items.add(new OrderItem(id, q, chosen.price));
-                refreshOrderItems(model, o);
-            } catch (Exception ex) { JOptionPane.showMessageDialog(dlg, "Invalid qty."); }
-        });
+            long totalOrders = 0, totalErrors = 0, totalOps = 0;
+            for (int t = 0; t < terminals; t++) { totalOrders += orders[t]; totalErrors += errors[t]; }
+            failedOrders = totalErrors;
+            System.out.printf("%nOrders: %d in %.1f s (%.1f/s), errors: %d%n", totalOrders, secs, totalOrders / secs, totalErrors);
+            System.out.printf("%-8s %8s %10s %10s %10s %10s%n", "op", "count", "p50 ms", "p95 ms", "p99 ms", "max ms");
+            for (int op = 0; op < OPS.length; op++) {
+                Latencies all = new Latencies();
+                for (int t = 0; t < terminals; t++) all.addAll(lat[t][op]);
+                totalOps += all.n;
+                if (all.n == 0) continue;
+                all.sort();
+                System.out.printf("%-8s %8d %10.2f %10.2f %10.2f %10.2f%n", OPS[op], all.n,
+                        all.percentile(50) / 1e6, all.percentile(95) / 1e6, all.percentile(99) / 1e6, all.percentile(100) / 1e6);
+            }
+            System.out.printf("Operations: %d (%.1f/s)%n", totalOps, totalOps / secs);
+            if (readers > 0) {
+                long views = 0, bad = 0, nanos = 0;
+                for (long[] r : reads) { views += r[0]; bad += r[1]; nanos += r[2]; }
+                inconsistentViews = bad;
+                System.out.printf("Read views: %d checked by %d readers, %d inconsistent, %.2f ms average scan%n",
+                        views, readers, bad, views == 0 ? 0 : nanos / 1e6 / views);
+            }
+            if (rate > 0) System.out.println("(create latency is measured from the scheduled arrival, so it includes queueing)");
 
-        btnQty.addActionListener(e -> {
-            int sel = table.getSelectedRow();
-            if (sel < 0) { JOptionPane.showMessageDialog(dlg, "Select row."); return; }
-            int idx = sel;
-            OrderItem oi = o.items.get(idx);
-            String s = JOptionPane.showInputDialog(dlg, "New quantity:", oi.qty);
-            if (s == null) return;
-            try {
-                int q = Integer.parseInt(s.trim());
-                if (q <= 0) { JOptionPane.showMessageDialog(dlg, "Invalid qty."); return; }
-                oi.qty = q; refreshOrderItems(model, o);
-            } catch (Exception ex) { JOptionPane.showMessageDialog(dlg, "Invalid number."); }
-        });
+            Map<String, Long> after = fileSizes();
+            System.out.printf("%n%-16s %12s %12s %12s%n", "file", "before", "after", "per minute");
+            for (String f : after.keySet()) {
+                long b = before.getOrDefault(f, 0L), a = after.get(f);
+                System.out.printf("%-16s %12s %12s %12s%n", f, kb(b), kb(a), kb((long) ((a - b) * 60 / secs)));
+            }
+        }
 
-        btnRemove.addActionListener(e -> {
-            int sel = table.getSelectedRow();
-            if (sel < 0) { JOptionPane.showMessageDialog(dlg, "Select row."); return; }
-            o.items.remove(sel); refreshOrderItems(model, o);
-        });
+        // one terminal: Poisson arrivals at rate/terminals, each order goes through the panel operations
+        private void terminal(int term, long start, long end, Latencies[] lat, long[] orders, long[] errors) {
+            Random rnd = new Random(seed + term);
+            String employee = "sim" + (term + 1);
+            AuditLog.setThreadActor(employee);
+            double perTerminal = rate / terminals;
+            long next = start;
+            while (true) {
+                if (perTerminal > 0) next += (long) (-Math.log(1 - rnd.nextDouble()) / perTerminal * 1e9);
+                else next = System.nanoTime();
+                if (next >= end) break;
+                long wait = next - System.nanoTime();
+                if (wait > 0) LockSupport.parkNanos(wait);
+                try {
+                    long t0 = perTerminal > 0 ? next : System.nanoTime();
+                    Order o = new Order(store.allocateOrderId(), employee);
+                    int lines = 1 + rnd.nextInt(2 * meanSize - 1);
+                    for (int i = 0; i < lines; i++) addToOrder(o, pick(rnd), 1 + rnd.nextInt(maxQty));
+                    store.putOrder(o);
+                    lat[CREATE].add(System.nanoTime() - t0);
+
+                    if (rnd.nextDouble() < pEdit) {
+                        t0 = System.nanoTime();
+                        Order edited = o.copy();
+                        if (rnd.nextBoolean()) addToOrder(edited, pick(rnd), 1 + rnd.nextInt(maxQty));
+                        else edited.items.get(rnd.nextInt(edited.items.size())).qty = 1 + rnd.nextInt(maxQty);
+                        store.putOrder(edited);
+                        o = edited;
+                        lat[EDIT].add(System.nanoTime() - t0);
+                    }
+                    double r = rnd.nextDouble();
+                    if (r < pDelete) {
+                        t0 = System.nanoTime();
+                        store.removeOrder(o.orderID);
+                        lat[DELETE].add(System.nanoTime() - t0);
+                    } else if (r < pDelete + pBill) {
+                        t0 = System.nanoTime();
+                        billOrder(o);
+                        lat[BILL].add(System.nanoTime() - t0);
+                    }
+                    orders[term]++;
+                } catch (Exception e) {
+                    if (errors[term]++ == 0) e.printStackTrace();
+                }
+                if (System.nanoTime() >= end) break;
+            }
+        }
 
-        final boolean[] saved = {false};
-        btnSave.addActionListener(e -> { saved[0] = true; dlg.dispose(); });
-        btnCancel.addActionListener(e -> { dlg.dispose(); });
+        // res = {views checked, inconsistent views, total scan nanos}
+        private void checkViews(long end, long[] res) {
+            while (System.nanoTime() < end) {
+                long t0 = System.nanoTime();
+                try (DataStore.ReadView view = store.openReadView()) {
+                    double billTotal = 0, orderTotal = 0;
+                    long billCount = 0, billedOrders = 0;
+                    for (Bill b : view.bills()) if (view.order(b.orderID) != null) { billTotal += b.amount; billCount++; }
+                    for (Order o : view.orders()) if (o.billed) { orderTotal += o.total(); billedOrders++; }
+                    if (billCount != billedOrders || Math.abs(billTotal - orderTotal) > 0.005) {
+                        if (res[1]++ == 0) System.err.printf("Inconsistent view %d: %d bills Rs %.2f vs %d billed orders Rs %.2f%n",
+                                view.version, billCount, billTotal, billedOrders, orderTotal);
+                    }
+                }
+                res[0]++;
+                res[2] += System.nanoTime() - t0;
+            }
+        }
 
-        dlg.setContentPane(main);
-        dlg.setVisible(true);
-        return saved[0];
+        Item pick(Random rnd) {
+            if (!zipf) return menu.get(rnd.nextInt(menu.size()));
+            int i = Arrays.binarySearch(menuCdf, rnd.nextDouble());
+            return menu.get(Math.min(menu.size() - 1, i < 0 ? -i - 1 : i));
+        }
+
+        // one employee per terminal and a menu of the requested size
+        private void seed() {
+            for (int t = 1; t <= terminals; t++) {
+                if (!store.users.containsKey("sim" + t)) store.putUser(new Employee(store.allocateUserId(), "sim" + t, "sim", "Terminal " + t));
+            }
+            Random rnd = new Random(seed);
+            List<DataStore.Change> changes = new ArrayList<>();
+            for (int i = store.items.size(); i < menuSize; i++) {
+                Item it = new Item(store.allocateItemId(), "Dish " + (i + 1), 100 + rnd.nextInt(1400), 100, "simulated");
+                changes.add(DataStore.Change.put(DataStore.ITEMS, it.itemID, it));
+            }
+            if (!changes.isEmpty()) store.commit(changes);
+            menu = new ArrayList<>(store.itemsById.values());
+            menuCdf = new double[menu.size()];
+            double sum = 0;
+            for (int i = 0; i < menuCdf.length; i++) { sum += 1 / Math.pow(i + 1, skew); menuCdf[i] = sum; }
+            for (int i = 0; i < menuCdf.length; i++) menuCdf[i] /= sum;
+        }
+
+        // data files by name; bill text files are summed into one entry
+        private Map<String, Long> fileSizes() {
+            Map<String, Long> sizes = new TreeMap<>();
+            File[] files = dir.listFiles();
+            if (files != null) for (File f : files) {
+                if (f.isDirectory()) {
+                    long total = 0;
+                    File[] inner = f.listFiles();
+                    if (inner != null) for (File g : inner) total += g.length();
+                    sizes.put(f.getName() + "/", total);
+                } else if (f.getName().startsWith("bill_order_")) {
+                    sizes.merge("bill_order_*", f.length(), Long::sum);
+                } else {
+                    sizes.put(f.getName(), f.length());
+                }
+            }
+            return sizes;
+        }
+
+        static String kb(long bytes) { return String.format("%.1f KB", bytes / 1024.0); }
+
+        // growable list of nanosecond samples, owned by one terminal thread
+        static class Latencies {
+            long[] v = new long[1024];
+            int n;
+            void add(long x) { if (n == v.length) v = Arrays.copyOf(v, n * 2); v[n++] = x; }
+            void addAll(Latencies o) { for (int i = 0; i < o.n; i++) add(o.v[i]); }
+            void sort() { Arrays.sort(v, 0, n); }
+            long percentile(double p) { int i = (int) Math.ceil(p / 100 * n) - 1; return v[Math.max(0, Math.min(n - 1, i))]; }
+        }
     }
 
-    static void refreshOrderItems(DefaultTableModel model, Order o) {
-        model.setRowCount(0);
-        int i=1;
-        for (OrderItem oi : o.items) {
-            Item it = store.items.get(oi.itemID);
-            String name = (it==null) ? ("Item#" + oi.itemID) : it.itemName;
-            double sub = oi.qty * oi.priceSnapshot;
-            model.addRow(new Object[]{i++, oi.itemID, name, oi.qty, String.format("Rs %.2f", oi.priceSnapshot), String.format("Rs %.2f", sub)});
+    // ------------------ Storage benchmark ------------------
+    // Runs the same workload against the serialized files and a JDBC database, each in a scratch
+    // directory: a store preloaded with open orders, then timed order creates and bills (one commit
+    // each, as the order panel does them), then a cold load. Keys: rows (preloaded open orders),
+    // orders (timed), items, url (JDBC URL, {dir} = scratch directory). A database whose driver is
+    // not on the classpath is reported and skipped.
+    static class StorageBenchmark {
+        static void run(String[] args) throws Exception {
+            Map<String, String> opts = parseOptions(args);
+            int rows = Integer.parseInt(opts.getOrDefault("rows", "20000"));
+            int count = Integer.parseInt(opts.getOrDefault("orders", "500"));
+            int menuSize = Integer.parseInt(opts.getOrDefault("items", "200"));
+            String url = opts.getOrDefault("url", System.getProperty("bitewave.storage.url", "jdbc:h2:{dir}/bitewave"));
+            System.setProperty("java.awt.headless", "true");
+            System.out.printf("%d preloaded open orders, %d timed orders, %d menu items%n", rows, count, menuSize);
+            System.out.printf("%-12s %12s %12s %12s %12s %10s %12s%n", "backend", "create p50", "create p99", "bill p50", "bill p99", "load ms", "disk");
+            for (String backendUrl : new String[]{"files", url}) {
+                File dir = java.nio.file.Files.createTempDirectory("bitewave-storage").toFile();
+                String name = backendUrl.equals("files") ? "files" : backendUrl.replaceFirst("^jdbc:([^:]+):.*", "$1");
+                StorageBackend backend;
+                try {
+                    backend = StorageBackend.open(dir, backendUrl);
+                } catch (IOException e) {
+                    System.out.printf("%-12s skipped: %s%n", name, e.getMessage());
+                    continue;
+                }
+                store = new DataStore(dir, backend);
+                store.load();
+                Random rnd = new Random(42);
+                List<DataStore.Change> changes = new ArrayList<>();
+                for (int i = 0; i < menuSize; i++) {
+                    Item it = new Item(store.allocateItemId(), "Dish " + (i + 1), 100 + rnd.nextInt(1400), 100, "benchmark");
+                    changes.add(DataStore.Change.put(DataStore.ITEMS, it.itemID, it));
+                }
+                store.commit(changes);
+                List<Item> menu = new ArrayList<>(store.itemsById.values());
+                changes.clear();
+                for (int i = 0; i < rows; i++) {
+                    Order o = order(rnd, menu);
+                    changes.add(DataStore.Change.put(DataStore.ORDERS, o.orderID, o));
+                }
+                if (!changes.isEmpty()) store.commit(changes);
+
+                Simulator.Latencies create = new Simulator.Latencies(), bill = new Simulator.Latencies();
+                for (int i = 0; i < count; i++) {
+                    Order o = order(rnd, menu);
+                    long t0 = System.nanoTime();
+                    store.putOrder(o);
+                    create.add(System.nanoTime() - t0);
+                    t0 = System.nanoTime();
+                    billOrder(o);
+                    bill.add(System.nanoTime() - t0);
+                }
+                store.close();
+
+                long t0 = System.nanoTime();
+                DataStore reloaded = new DataStore(dir, StorageBackend.open(dir, backendUrl));
+                reloaded.load();
+                double loadMs = (System.nanoTime() - t0) / 1e6;
+                reloaded.close();
+                if (reloaded.orders.size() != rows + count) System.out.println(name + ": reloaded " + reloaded.orders.size() + " orders, expected " + (rows + count));
+
+                create.sort();
+                bill.sort();
+                System.out.printf("%-12s %9.2f ms %9.2f ms %9.2f ms %9.2f ms %10.1f %12s%n", name,
+                        create.percentile(50) / 1e6, create.percentile(99) / 1e6, bill.percentile(50) / 1e6, bill.percentile(99) / 1e6,
+                        loadMs, Simulator.kb(diskSize(dir)));
+            }
+        }
+
+        static Order order(Random rnd, List<Item> menu) {
+            Order o = new Order(store.allocateOrderId(), "admin");
+            int lines = 1 + rnd.nextInt(5);
+            for (int i = 0; i < lines; i++) addToOrder(o, menu.get(rnd.nextInt(menu.size())), 1 + rnd.nextInt(3));
+            return o;
+        }
+
+        // data files only; bill text files are the same for every backend
+        static long diskSize(File f) {
+            if (f.isFile()) return f.getName().startsWith("bill_order_") ? 0 : f.length();
+            long total = 0;
+            File[] inner = f.listFiles();
+            if (inner != null) for (File g : inner) total += diskSize(g);
+            return total;
         }
     }
 
-    static JPanel createBillsPanel() {
-        JPanel panel = new JPanel(new BorderLayout(6,6));
-        DefaultListModel<String> lm = new DefaultListModel<>();
-        JList<String> list = new JList<>(lm);
-        JTextArea ta = new JTextArea();
-        ta.setEditable(false);
+    // ------------------ Pricing benchmark ------------------
+    // Generates a rule set (discounts with item lists, time windows and days, combos, service and tax)
+    // and random orders spread over a week, then measures the evaluator into one reused breakdown,
+    // cached quotes, and the bytes allocated per evaluation. Keys: rules, items, orders, lines, seconds.
+    static class PricingBenchmark {
+        static void run(String[] args) {
+            Map<String, String> opts = parseOptions(args);
+            int ruleCount = Integer.parseInt(opts.getOrDefault("rules", "500"));
+            int menuSize = Integer.parseInt(opts.getOrDefault("items", "300"));
+            int orderCount = Integer.parseInt(opts.getOrDefault("orders", "10000"));
+            int meanLines = Integer.parseInt(opts.getOrDefault("lines", "4"));
+            double seconds = Double.parseDouble(opts.getOrDefault("seconds", "3"));
+            Random rnd = new Random(42);
+
+            List<String> text = new ArrayList<>();
+            text.add("service Service charge: percent=5");
+            text.add("tax GST: percent=16");
+            String[] dayRanges = {"MON-FRI", "SAT,SUN", "FRI-SUN", "TUE"};
+            for (int r = 2; r < ruleCount; r++) {
+                int kind = rnd.nextInt(10);
+                StringBuilder sb = new StringBuilder();
+                if (kind < 6) {
+                    sb.append("discount Discount ").append(r).append(":");
+                    sb.append(rnd.nextBoolean() ? " percent=" + (5 + rnd.nextInt(30)) : " off=" + (10 + rnd.nextInt(90)));
+                    if (kind > 0) sb.append(" items=").append(ids(rnd, menuSize, 1 + rnd.nextInt(8)));
+                    if (rnd.nextInt(3) == 0) { int h = rnd.nextInt(24); sb.append(" from=").append(h).append(":00 to=").append((h + 2) % 24).append(":30"); }
+                    if (rnd.nextInt(4) == 0) sb.append(" days=").append(dayRanges[rnd.nextInt(dayRanges.length)]);
+                    if (rnd.nextInt(5) == 0) sb.append(" minQty=").append(2 + rnd.nextInt(3));
+                } else {
+                    sb.append("combo Combo ").append(r).append(": items=").append(ids(rnd, menuSize, 2 + rnd.nextInt(2)));
+                    sb.append(" price=").append(300 + rnd.nextInt(2000));
+                    if (rnd.nextInt(3) == 0) sb.append(" from=11:00 to=15:00");
+                }
+                text.add(sb.toString());
+            }
+            long t0 = System.nanoTime();
+            PricingEngine engine = PricingEngine.compile(PricingEngine.parse(text));
+            System.out.printf("%d rules over %d items compiled in %.1f ms%n", engine.rules.size(), menuSize, (System.nanoTime() - t0) / 1e6);
+
+            Order[] orders = new Order[orderCount];
+            long week = 7L * 24 * 3600 * 1000, now = System.currentTimeMillis();
+            for (int i = 0; i < orderCount; i++) {
+                Order o = new Order(i + 1, "bench");
+                o.orderDate = new Date(now - (long) (rnd.nextDouble() * week));
+                int lines = 1 + rnd.nextInt(2 * meanLines - 1);
+                for (int l = 0; l < lines; l++) {
+                    int id = 1 + rnd.nextInt(menuSize);
+                    o.items.add(new OrderItem(id, 1 + rnd.nextInt(3), 100 + (id * 37) % 1400));
+                }
+                orders[i] = o;
+            }
 
-        JPanel left = new JPanel(new BorderLayout());
-        left.add(new JScrollPane(list), BorderLayout.CENTER);
-        JButton btnRefresh = new JButton("Refresh Bills");
-        left.add(btnRefresh, BorderLayout.SOUTH);
+            PriceBreakdown b = new PriceBreakdown();
+            double checksum = 0, plain = 0;
+            for (Order o : orders) { engine.price(o, b); checksum += b.total; } // warm up
+            t0 = System.nanoTime();
+            long n = 0, alloc0 = allocatedBytes();
+            while (System.nanoTime() - t0 < seconds * 1e9) {
+                for (Order o : orders) { engine.price(o, b); checksum += b.total; }
+                n += orders.length;
+            }
+            double evalNs = (double) (System.nanoTime() - t0) / n;
+            long alloc = allocatedBytes() - alloc0;
+
+            for (Order o : orders) engine.quote(o);
+            t0 = System.nanoTime();
+            long m = 0;
+            while (System.nanoTime() - t0 < seconds * 1e9) {
+                for (Order o : orders) checksum += engine.quote(o).total;
+                m += orders.length;
+            }
+            double cachedNs = (double) (System.nanoTime() - t0) / m;
 
-        panel.add(left, BorderLayout.WEST);
-        panel.add(new JScrollPane(ta), BorderLayout.CENTER);
+            t0 = System.nanoTime();
+            long k = 0;
+            while (System.nanoTime() - t0 < seconds * 1e9) {
+                for (Order o : orders) for (OrderItem oi : o.items) plain += oi.qty * oi.priceSnapshot;
+                k += orders.length;
+            }
+            double plainNs = (double) (System.nanoTime() - t0) / k;
 
-        btnRefresh.addActionListener(e -> {
-            lm.clear();
-            File cwd = new File(".");
-            File[] files = cwd.listFiles((dir, name) -> name.startsWith("bill_order_") && name.endsWith(".txt"));
-            if (files != null) {
-                Arrays.sort(files, Comparator.comparing(File::getName));
-                for (File f: files) lm.addElement(f.getName());
+            System.out.printf("evaluate:     %,.0f orders/s (%.0f ns/order), %s%n", 1e9 / evalNs, evalNs,
+                    alloc < 0 ? "allocation not measurable on this JVM" : String.format("%.2f bytes allocated/order", (double) alloc / n));
+            System.out.printf("cached quote: %,.0f orders/s (%.0f ns/order)%n", 1e9 / cachedNs, cachedNs);
+            System.out.printf("plain sum:    %,.0f orders/s (%.0f ns/order), no rules%n", 1e9 / plainNs, plainNs);
+            System.out.printf("(checksum %.0f)%n", checksum + plain);
+        }
+
+        static String ids(Random rnd, int menuSize, int count) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < count; i++) sb.append(i == 0 ? "" : ",").append(1 + rnd.nextInt(menuSize));
+            return sb.toString();
+        }
+
+        static long allocatedBytes() {
+            java.lang.management.ThreadMXBean mx = java.lang.management.ManagementFactory.getThreadMXBean();
+            if (!(mx instanceof com.sun.management.ThreadMXBean)) return -1;
+            return ((com.sun.management.ThreadMXBean) mx).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+    }
+
+    // ------------------ Audit log ------------------
+    // Every committed change is recorded with its actor and before/after values. The committing thread
+    // only fills a preallocated ring slot (it already holds the store lock, so there is one producer);
+    // a background thread formats the slots and appends them to rotating binary files in audit/.
+    // File format: magic int, then records of (int length, payload) where the payload is
+    // time, seq, actor, action, entity, key, before, after written with DataOutputStream.
+    static class AuditLog implements DataStore.ChangeListener, Closeable {
+        static final int RING_SIZE = 1 << 16; // power of two
+        static final long MAX_FILE_BYTES = 4L << 20;
+        static final int MAX_FILES = 20;
+        static final int MAGIC = 0x42574155; // "BWAU"
+        static final String[] ACTIONS = {"create", "update", "delete"};
+        static final int MAX_TEXT = 2000;
+
+        static final String SYSTEM = "system"; // actor when nobody is logged in
+        private static volatile String defaultActor = SYSTEM;
+        private static final ThreadLocal<String> threadActor = new ThreadLocal<>();
+
+        static void setActor(String actor) { defaultActor = actor; } // the user logged in on this terminal
+        static void setThreadActor(String actor) { threadActor.set(actor); } // e.g. simulated terminals
+        static String actor() { String a = threadActor.get(); return a != null ? a : defaultActor; }
+
+        private static final class Slot {
+            long time, seq;
+            String actor, collection;
+            byte action;
+            Object key, before, after;
+        }
+
+        final File dir;
+        private final DataStore store;
+        private final Slot[] ring = new Slot[RING_SIZE];
+        private final AtomicLong published = new AtomicLong(); // slots below this are filled
+        private volatile long consumed; // slots below this have been written
+        private long claimed; // producer position, guarded by the store lock
+        private volatile long stalls; // times the producer found the ring full
+        private volatile boolean closed;
+        private final Thread drainer;
+
+        private DataOutputStream out;
+        private long fileBytes;
+        private final ByteArrayOutputStream record = new ByteArrayOutputStream(256);
+        private final DataOutputStream recordOut = new DataOutputStream(record);
+
+        AuditLog(DataStore store) {
+            this.store = store;
+            this.dir = new File(store.dir, "audit");
+            for (int i = 0; i < RING_SIZE; i++) ring[i] = new Slot();
+            drainer = new Thread(this::drain, "audit-writer");
+            drainer.setDaemon(true);
+            drainer.start();
+            store.addListener(this);
+        }
+
+        static AuditLog start(DataStore store) {
+            AuditLog log = new AuditLog(store);
+            Runtime.getRuntime().addShutdownHook(new Thread(log::close, "audit-shutdown"));
+            return log;
+        }
+
+        long stalls() { return stalls; }
+
+        // hot path: runs on the committing thread under the store lock
+        public void committed(long seq, DataStore.Change c, Object previous) {
+            long pos = claimed;
+            while (pos - consumed >= RING_SIZE) { stalls++; LockSupport.parkNanos(50_000); } // full: let the writer catch up
+            Slot s = ring[(int) pos & (RING_SIZE - 1)];
+            s.time = System.currentTimeMillis();
+            s.seq = seq;
+            s.actor = actor();
+            s.action = (byte) (c.value == null ? 2 : previous == null ? 0 : 1);
+            s.collection = c.collection;
+            s.key = c.key;
+            s.before = previous;
+            s.after = c.value;
+            claimed = pos + 1;
+            published.lazySet(pos + 1);
+        }
+
+        private void drain() {
+            long pos = consumed;
+            while (true) {
+                long avail = published.get();
+                if (pos == avail) {
+                    try { if (out != null) out.flush(); } catch (IOException e) { e.printStackTrace(); }
+                    if (closed) return;
+                    LockSupport.parkNanos(1_000_000);
+                    continue;
+                }
+                for (; pos < avail; pos++) {
+                    Slot s = ring[(int) pos & (RING_SIZE - 1)];
+                    try { write(s); } catch (IOException e) { e.printStackTrace(); }
+                    s.key = s.before = s.after = null; // don't keep old records reachable
+                }
+                consumed = pos;
             }
-        });
+        }
 
-        list.addListSelectionListener(e -> {
-            if (!e.getValueIsAdjusting()) {
-                String sel = list.getSelectedValue();
-                if (sel == null) return;
-                try (BufferedReader br = new BufferedReader(new FileReader(sel))) {
-                    StringBuilder sb = new StringBuilder();
-                    String line;
-                    while ((line = br.readLine()) != null) sb.append(line).append("\n");
-                    ta.setText(sb.toString());
-                } catch (Exception ex) { ta.setText("Failed to read: " + ex.getMessage()); }
+        private void write(Slot s) throws IOException {
+            record.reset();
+            recordOut.writeLong(s.time);
+            recordOut.writeLong(s.seq);
+            recordOut.writeUTF(s.actor);
+            recordOut.writeByte(s.action);
+            recordOut.writeUTF(s.collection);
+            recordOut.writeUTF(String.valueOf(s.key));
+            recordOut.writeUTF(describe(s.before));
+            recordOut.writeUTF(describe(s.after));
+            if (out == null || fileBytes + 4 + record.size() > MAX_FILE_BYTES) rotate();
+            out.writeInt(record.size());
+            record.writeTo(out);
+            fileBytes += 4 + record.size();
+        }
+
+        // starts a new file and removes the oldest ones beyond MAX_FILES
+        private void rotate() throws IOException {
+            if (out != null) out.close();
+            dir.mkdirs();
+            List<File> files = logFiles(dir);
+            int next = files.isEmpty() ? 1 : fileNumber(files.get(files.size() - 1)) + 1;
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(new File(dir, String.format("audit-%06d.log", next))), 1 << 16));
+            out.writeInt(MAGIC);
+            fileBytes = 4;
+            for (int i = 0; i <= files.size() - MAX_FILES; i++) files.get(i).delete();
+        }
+
+        // waits for everything recorded so far to reach the file
+        public void close() {
+            synchronized (store) { store.removeListener(this); } // no commit is mid-way through recording
+            closed = true;
+            try { drainer.join(5000); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+            try { if (out != null) out.close(); } catch (IOException e) { e.printStackTrace(); }
+        }
+
+        // readable summary of a record; passwords are never logged
+        static String describe(Object v) {
+            String d;
+            if (v == null) d = "";
+            else if (v instanceof User) { User u = (User) v; d = u.getRole() + " " + u.username + " '" + u.name + "'"; }
+            else if (v instanceof Item) { Item it = (Item) v; d = String.format("%s, Rs %.2f, qty %d, %s", it.itemName, it.price, it.quantity, it.description); }
+            else if (v instanceof Order) {
+                Order o = (Order) v;
+                StringBuilder sb = new StringBuilder(String.format("by %s, Rs %.2f%s:", o.placedByUsername, o.total(), o.billed ? ", billed" : ""));
+                for (OrderItem oi : o.items) sb.append(' ').append(oi.qty).append("x#").append(oi.itemID);
+                d = sb.toString();
             }
-        });
+            else if (v instanceof Bill) { Bill b = (Bill) v; d = String.format("order %d, Rs %.2f, %s", b.orderID, b.amount, b.filename); }
+            else d = String.valueOf(v);
+            return d.length() > MAX_TEXT ? d.substring(0, MAX_TEXT) + "..." : d;
+        }
 
-        return panel;
+        static List<File> logFiles(File dir) {
+            File[] files = dir.listFiles((d, name) -> name.startsWith("audit-") && name.endsWith(".log"));
+            List<File> list = files == null ? new ArrayList<>() : new ArrayList<>(Arrays.asList(files));
+            list.sort(Comparator.comparingInt(AuditLog::fileNumber));
+            return list;
+        }
+
+        static int fileNumber(File f) {
+            String n = f.getName();
+            try { return Integer.parseInt(n.substring(6, n.length() - 4)); } catch (NumberFormatException e) { return 0; }
+        }
+
+        static class Event {
+            long time, seq;
+            String actor, action, entity, key, before, after;
+            boolean matches(String q) {
+                if (q.isEmpty()) return true;
+                for (String f : new String[]{actor, action, entity, key, before, after}) if (f.toLowerCase().contains(q)) return true;
+                return false;
+            }
+        }
+
+        // newest first; a case-insensitive substring match on any field
+        static List<Event> search(File dir, String query, int limit) {
+            String q = query.trim().toLowerCase();
+            List<Event> found = new ArrayList<>();
+            List<File> files = logFiles(dir);
+            for (int i = files.size() - 1; i >= 0 && found.size() < limit; i--) {
+                List<Event> inFile = new ArrayList<>();
+                try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(files.get(i))))) {
+                    if (in.readInt() != MAGIC) continue;
+                    while (true) {
+                        byte[] b = new byte[in.readInt()];
+                        in.readFully(b);
+                        DataInputStream r = new DataInputStream(new ByteArrayInputStream(b));
+                        Event e = new Event();
+                        e.time = r.readLong(); e.seq = r.readLong(); e.actor = r.readUTF();
+                        int a = r.readByte();
+                        e.action = a >= 0 && a < ACTIONS.length ? ACTIONS[a] : "?";
+                        e.entity = r.readUTF(); e.key = r.readUTF(); e.before = r.readUTF(); e.after = r.readUTF();
+                        if (e.matches(q)) inFile.add(e);
+                    }
+                } catch (EOFException e) {
+                    // end of file, or a record still being written
+                } catch (IOException e) { e.printStackTrace(); }
+                for (int k = inFile.size() - 1; k >= 0 && found.size() < limit; k--) found.add(inFile.get(k));
+            }
+            return found;
+        }
     }
 
-    static String generateBillFile(Order o) {
-        double total = o.total();
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyyMMdd_HHmmss");
-        String fname = "bill_order_" + o.orderID + "_" + sdf.format(new Date()) + ".txt";
-        try (PrintWriter pw = new PrintWriter(new FileWriter(fname))) {
-            pw.println("====== RESTAURANT BILL ======");
-            pw.println("Order ID: " + o.orderID);
-            pw.println("Placed by: " + o.placedByUsername);
-            pw.println("Date: " + new Date());
-            pw.println();
-            pw.println(String.format("%-4s %-20s %-6s %-10s", "No", "Name", "Qty", "Subtotal"));
-            int idx=1;
-            for (OrderItem oi : o.items) {
-                Item it = store.items.get(oi.itemID);
-                String name = (it==null) ? ("Item#" + oi.itemID) : it.itemName;
-                double sub = oi.qty * oi.priceSnapshot;
-                pw.printf("%-4d %-20s %-6d Rs %-8.2f\n", idx++, name, oi.qty, sub);
+    // ------------------ Live dashboard statistics ------------------
+    // Counters are kept up to date from DataStore commits (constant work per change); a background
+    // sampler reads them every period and hands changed values to the EDT, coalescing pushes so a
+    // busy store never floods the event queue.
+    static class LiveStats implements DataStore.ChangeListener {
+        static class Sample {
+            double revenueToday;
+            long billsToday, openOrders, ordersLastHour, employees, items, orders, bills;
+            double averageTicket() { return billsToday == 0 ? 0 : revenueToday / billsToday; }
+
+            @Override public boolean equals(Object o) {
+                if (!(o instanceof Sample)) return false;
+                Sample s = (Sample) o;
+                return revenueToday == s.revenueToday && billsToday == s.billsToday && openOrders == s.openOrders
+                        && ordersLastHour == s.ordersLastHour && employees == s.employees && items == s.items
+                        && orders == s.orders && bills == s.bills;
+            }
+            @Override public int hashCode() { return Objects.hash(revenueToday, billsToday, openOrders, ordersLastHour, employees, items, orders, bills); }
+        }
+
+        private final DataStore store;
+        private final List<Consumer<Sample>> subscribers = new CopyOnWriteArrayList<>();
+        private final AtomicReference<Sample> pending = new AtomicReference<>();
+        private final ScheduledExecutorService sampler;
+        private Sample lastPushed;
+
+        // guarded by this
+        private int day; // business day the "today" counters belong to
+        private double revenueToday;
+        private long billsToday, openOrders, employees;
+        private final long[] minuteCounts = new long[60]; // orders per minute of their order time, ring over the last hour
+        private final long[] minuteStamps = new long[60]; // which minute each slot currently holds
+
+        LiveStats(DataStore store, long periodMs) {
+            this.store = store;
+            synchronized (store) { // one scan at startup, then only increments
+                day = store.history.today();
+                for (Order o : store.orders.values()) {
+                    if (!o.billed) openOrders++;
+                    countOrderCreated(o);
+                }
+                for (Bill b : store.bills.values()) {
+                    if (store.history.dayOf(b.billDate) == day) { revenueToday += b.amount; billsToday++; }
+                }
+                for (User u : store.users.values()) if (u instanceof Employee) employees++;
+                store.addListener(this);
+            }
+            sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "live-stats");
+                t.setDaemon(true);
+                return t;
+            });
+            sampler.scheduleAtFixedRate(this::push, periodMs, periodMs, TimeUnit.MILLISECONDS);
+        }
+
+        void subscribe(Consumer<Sample> s) { subscribers.add(s); }
+        void unsubscribe(Consumer<Sample> s) { subscribers.remove(s); }
+
+        void stop() { sampler.shutdownNow(); store.removeListener(this); }
+
+        // runs under the store lock for every committed change
+        public synchronized void committed(long seq, DataStore.Change c, Object previous) {
+            rollDay();
+            Object value = c.value;
+            if (value instanceof Order || previous instanceof Order) {
+                Order before = (Order) previous, after = (Order) value;
+                if (before != null && !before.billed) openOrders--;
+                if (after != null && !after.billed) openOrders++;
+                if (before == null && after != null) countOrderCreated(after);
+            } else if (value instanceof Bill && previous == null) {
+                Bill b = (Bill) value;
+                if (store.history.dayOf(b.billDate) == day) { revenueToday += b.amount; billsToday++; }
+            } else if (value instanceof Employee || previous instanceof Employee) {
+                if (previous == null) employees++;
+                else if (value == null) employees--;
+            }
+        }
+
+        // counted in the minute the order was placed, so importing old orders leaves the last hour alone
+        private void countOrderCreated(Order o) {
+            long minute = o.orderDate.getTime() / 60000, now = System.currentTimeMillis() / 60000;
+            if (minute > now || now - minute >= 60) return;
+            int slot = (int) (minute % 60);
+            if (minuteStamps[slot] > minute) return; // the slot already holds a later minute, so this one has left the hour
+            if (minuteStamps[slot] != minute) { minuteStamps[slot] = minute; minuteCounts[slot] = 0; }
+            minuteCounts[slot]++;
+        }
+
+        private void rollDay() {
+            int today = store.history.today();
+            if (today != day) { day = today; revenueToday = 0; billsToday = 0; }
+        }
+
+        synchronized Sample sample() {
+            rollDay();
+            Sample s = new Sample();
+            s.revenueToday = revenueToday;
+            s.billsToday = billsToday;
+            s.openOrders = openOrders;
+            s.employees = employees;
+            long minute = System.currentTimeMillis() / 60000;
+            for (int i = 0; i < 60; i++) if (minute - minuteStamps[i] < 60) s.ordersLastHour += minuteCounts[i];
+            // sizes of concurrent maps are maintained counters, not scans
+            s.items = store.items.size();
+            s.orders = store.orders.size() + store.history.orderCount();
+            s.bills = store.bills.size();
+            return s;
+        }
+
+        private void push() {
+            Sample s = sample();
+            if (s.equals(lastPushed)) return;
+            lastPushed = s;
+            if (pending.getAndSet(s) == null) {
+                SwingUtilities.invokeLater(() -> {
+                    Sample latest = pending.getAndSet(null);
+                    for (Consumer<Sample> sub : subscribers) sub.accept(latest);
+                });
             }
-            pw.println("---------------------------------");
-            pw.printf("Total: Rs %.2f\n", total);
-            pw.println();
-            pw.println("Thank you!");
-            pw.flush();
-            return fname;
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(null, "Failed to write bill: " + e.getMessage());
-            return null;
         }
     }
 }